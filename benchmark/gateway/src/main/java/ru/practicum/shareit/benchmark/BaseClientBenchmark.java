@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.item.ItemResponseCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение запроса в BaseClient, сериализация тела и разбор ответа сервера; сеть заменена заглушкой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseClientBenchmark {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    @Param({"10", "100"})
+    public int size;
+
+    private BookingClient bookingClient;
+    private BookingRequest bookingRequest;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Map<String, Object>> bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            bookings.add(Map.of(
+                    "id", id,
+                    "start", start.toString(),
+                    "end", start.plusDays(1).toString(),
+                    "item", Map.of("id", id, "name", "Дрель", "description", "Простая дрель", "available", true),
+                    "booker", Map.of("id", 2L, "name", "user", "email", "user@mail.ru"),
+                    "status", "WAITING"));
+        }
+        byte[] responseBody = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(bookings);
+
+        StubRequestFactory requestFactory = new StubRequestFactory(responseBody);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ItemResponseCache itemResponseCache = new ItemResponseCache(10_000, Duration.ofSeconds(5), meterRegistry);
+        RequestCoalescer requestCoalescer = new RequestCoalescer(true, Duration.ofSeconds(2), meterRegistry);
+        bookingClient = new BookingClient(SERVER_URL, new RestTemplateBuilder(), requestFactory, requestCoalescer,
+                itemResponseCache);
+
+        bookingRequest = BookingRequest.builder()
+                .itemId(1L)
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+    }
+
+    // списки бронирований отдаются без разбора (PassThroughBenchmark), здесь - GET с разбором ответа
+    @Benchmark
+    public ResponseEntity<Object> getWithParameters() {
+        return bookingClient.forwardGet("?state=ALL&from=0&size=" + size, 1L);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> postWithBody() {
+        return bookingClient.save(1L, bookingRequest);
+    }
+}
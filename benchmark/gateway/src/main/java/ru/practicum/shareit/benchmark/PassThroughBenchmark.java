@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.item.ItemResponseCache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Работа гейтвея на один GET списка бронирований до и после передачи тела без разбора:
+ * получение ответа сервера (заглушка) и запись тела клиенту, как это делает конвертер Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassThroughBenchmark {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private BookingClient bookingClient;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Map<String, Object>> bookings = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            bookings.add(Map.of(
+                    "id", id,
+                    "start", start.toString(),
+                    "end", start.plusDays(1).toString(),
+                    "item", Map.of("id", id, "name", "Дрель", "description", "Простая дрель", "available", true),
+                    "booker", Map.of("id", 2L, "name", "user", "email", "user@mail.ru"),
+                    "status", "WAITING"));
+        }
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // без объединения запросов: сравнивается только разбор и запись тела
+        bookingClient = new BookingClient(SERVER_URL, new RestTemplateBuilder(),
+                new StubRequestFactory(objectMapper.writeValueAsBytes(bookings)),
+                new RequestCoalescer(false, Duration.ofSeconds(2), meterRegistry),
+                new ItemResponseCache(10_000, Duration.ofSeconds(5), meterRegistry));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> parsed() throws IOException {
+        ResponseEntity<Object> response = bookingClient.forwardGet("?state=ALL&from=0&size=" + size, 1L);
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+        return response;
+    }
+
+    @Benchmark
+    public long passThrough() throws IOException {
+        ResponseEntity<Object> response = bookingClient.findAllByState(1L, BookingState.ALL, 0, size, null);
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return body.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.net.URI;
+
+/**
+ * Отвечает заранее заготовленным JSON без сетевого обмена: в замер попадает только работа клиента гейтвея.
+ */
+class StubRequestFactory extends HttpComponentsClientHttpRequestFactory {
+    private final byte[] responseBody;
+
+    StubRequestFactory(byte[] responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        MockClientHttpResponse response = new MockClientHttpResponse(responseBody, HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(responseBody.length);
+        MockClientHttpRequest request = new MockClientHttpRequest(httpMethod, uri);
+        request.setResponse(response);
+        return request;
+    }
+}
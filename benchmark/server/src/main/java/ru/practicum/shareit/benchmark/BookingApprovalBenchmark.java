@@ -0,0 +1,137 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.model.ConflictException;
+import ru.practicum.shareit.exception.model.MyValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Нагрузочная проверка подтверждения броней: много потоков одновременно подтверждают и отклоняют
+ * пересекающиеся брони нескольких вещей. После каждой итерации проверяется, что у каждой вещи
+ * не больше одной подтверждённой брони на общий период. Конфликты разрешаются версиями (@Version),
+ * без блокировок строк и таблиц.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class BookingApprovalBenchmark {
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS_PER_ITEM = 200;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+    private List<Item> items;
+    private List<Long> bookingIds;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        bookingService = context.getBean(BookingService.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        List<Item> newItems = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            newItems.add(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Простая дрель")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        items = itemRepository.saveAll(newItems);
+    }
+
+    // брони сохраняются репозиторием в обход BookingAvailabilityService, который не дал бы создать пересечения;
+    // у каждой итерации свой период, чтобы подтверждения прошлых итераций не мешали
+    @Setup(Level.Iteration)
+    public void seedBookings() {
+        iteration++;
+        LocalDateTime start = LocalDateTime.now().plusDays(2L * iteration);
+        List<Booking> bookings = new ArrayList<>();
+        for (Item item : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                bookings.add(Booking.builder()
+                        .start(start.plusHours(i % 12))
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+        }
+        bookingIds = bookingRepository.saveAll(bookings).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoOverlappingApprovals() {
+        Map<Long, Long> approvedByItem = bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.counting()));
+        approvedByItem.forEach((itemId, approved) -> {
+            if (approved > 1) {
+                throw new IllegalStateException(
+                        String.format("У вещи с ID:%d подтверждено пересекающихся броней: %d", itemId, approved));
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String approveOrReject() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long bookingId = bookingIds.get(random.nextInt(bookingIds.size()));
+        // подтверждений больше, чем отклонений, чтобы подтверждения чаще сталкивались между собой
+        boolean approve = random.nextInt(4) != 0;
+        try {
+            return bookingService.update(bookingId, owner.getId(), approve).getStatus().name();
+        } catch (MyValidationException e) {
+            return "ALREADY_DECIDED";
+        } catch (ConflictException e) {
+            return "OVERLAP";
+        } catch (OptimisticLockingFailureException e) {
+            return "RETRIES_EXHAUSTED";
+        }
+    }
+}
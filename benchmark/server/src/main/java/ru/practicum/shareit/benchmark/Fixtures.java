@@ -0,0 +1,79 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Объектные графы в памяти для бенчмарков, которым не нужна база.
+ */
+final class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user" + id)
+                .email("user" + id + "@mail.ru")
+                .build();
+    }
+
+    static List<Item> items(int count) {
+        User owner = user(1L);
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("Дрель " + id)
+                    .description("Простая дрель номер " + id)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        return items;
+    }
+
+    static List<Booking> bookings(List<Item> items, int perItem) {
+        List<Booking> bookings = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                bookings.add(Booking.builder()
+                        .id(id++)
+                        .start(NOW.plusDays(i))
+                        .end(NOW.plusDays(i).plusHours(12))
+                        .item(item)
+                        .booker(user(2L + i))
+                        .status(BookingStatus.APPROVED)
+                        .build());
+            }
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(List<Item> items, int perItem) {
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(Comment.builder()
+                        .id(id++)
+                        .text("Отличная вещь, комментарий " + i)
+                        .item(item)
+                        .author(user(2L + i))
+                        .created(NOW.minusDays(i))
+                        .build());
+            }
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Наполняет базу H2 профиля test: владельцы с вещами, прошлые и будущие бронирования, комментарии.
+ */
+final class H2Dataset {
+    private static final int BOOKERS = 20;
+
+    private final List<Long> ownerIds;
+
+    private H2Dataset(List<Long> ownerIds) {
+        this.ownerIds = ownerIds;
+    }
+
+    static H2Dataset seed(ApplicationContext context, int owners, int itemsPerOwner, int bookingsPerItem,
+                          int commentsPerItem) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookers.add(User.builder().name("booker" + i).email("booker" + i + "@mail.ru").build());
+        }
+        bookers = userRepository.saveAll(bookers);
+
+        List<User> ownerList = new ArrayList<>();
+        for (int i = 0; i < owners; i++) {
+            ownerList.add(User.builder().name("owner" + i).email("owner" + i + "@mail.ru").build());
+        }
+        ownerList = userRepository.saveAll(ownerList);
+
+        List<Item> items = new ArrayList<>();
+        for (User owner : ownerList) {
+            for (int i = 0; i < itemsPerOwner; i++) {
+                items.add(Item.builder()
+                        .name("Вещь " + i + " владельца " + owner.getId())
+                        .description("Описание вещи " + i)
+                        .available(true)
+                        .owner(owner)
+                        .build());
+            }
+        }
+        items = itemRepository.saveAll(items);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : items) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                // половина бронирований в прошлом, половина в будущем, чтобы были и last, и next
+                LocalDateTime start = now.plusDays(2L * (i - bookingsPerItem / 2));
+                bookings.add(Booking.builder()
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(item)
+                        .booker(bookers.get(i % BOOKERS))
+                        .status(BookingStatus.APPROVED)
+                        .build());
+            }
+            for (int i = 0; i < commentsPerItem; i++) {
+                comments.add(Comment.builder()
+                        .text("Комментарий " + i)
+                        .item(item)
+                        .author(bookers.get(i % BOOKERS))
+                        .created(now.minusDays(i))
+                        .build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+
+        return new H2Dataset(ownerList.stream().map(User::getId).collect(Collectors.toList()));
+    }
+
+    List<Long> getOwnerIds() {
+        return ownerIds;
+    }
+}
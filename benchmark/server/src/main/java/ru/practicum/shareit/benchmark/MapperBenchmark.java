@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.mapper.BookingMapperShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    // репозиторий запросов нужен только для ItemDto -> Item
+    private final ItemMapper itemMapper = new ItemMapperImpl(null);
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        items = Fixtures.items(size);
+        bookings = Fixtures.bookings(items, 2);
+        comments = Fixtures.comments(items, 3);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemToItemDto() {
+        return items.stream()
+                .map(itemMapper::itemToItemDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingToBookingDto() {
+        return bookings.stream()
+                .map(bookingMapper::bookingToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookingDtoShort> bookingToBookingDtoShort() {
+        return bookings.stream()
+                .map(BookingMapperShort::bookingToBookingDtoShort)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CommentDto> commentToCommentDto() {
+        return comments.stream()
+                .map(CommentMapper::commentToCommentDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Та же группировка комментариев по вещам, что и в ItemServiceImpl.findByUserId, но без обращения к базе.
+     */
+    @Benchmark
+    public List<ItemDtoEnhanced> enrichWithComments() {
+        List<ItemDtoEnhanced> itemDtoEnhancedList = items.stream()
+                .map(itemMapper::itemToItemDtoEnhanced)
+                .collect(Collectors.toList());
+        Map<Long, List<Comment>> itemIdToListComments = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
+        itemDtoEnhancedList.forEach(i -> i.setComments(itemIdToListComments.getOrDefault(i.getId(), new ArrayList<>())
+                .stream()
+                .map(CommentMapper::commentToCommentDto)
+                .collect(Collectors.toList())));
+        return itemDtoEnhancedList;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.mapper.BookingMapperShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    public int size;
+
+    // те же настройки, что Spring Boot применяет к ObjectMapper сервера
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<ItemDtoEnhanced> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        List<Item> itemList = Fixtures.items(size);
+        List<Booking> bookingList = Fixtures.bookings(itemList, 2);
+        Map<Long, List<Comment>> itemIdToComments = Fixtures.comments(itemList, 3).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, List<Booking>> itemIdToBookings = bookingList.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        ItemMapperImpl itemMapper = new ItemMapperImpl(null);
+        items = itemList.stream()
+                .map(item -> {
+                    ItemDtoEnhanced dto = itemMapper.itemToItemDtoEnhanced(item);
+                    List<Booking> itemBookings = itemIdToBookings.get(item.getId());
+                    dto.setLastBooking(BookingMapperShort.bookingToBookingDtoShort(itemBookings.get(0)));
+                    dto.setNextBooking(BookingMapperShort.bookingToBookingDtoShort(itemBookings.get(1)));
+                    dto.setComments(itemIdToComments.get(item.getId()).stream()
+                            .map(CommentMapper::commentToCommentDto)
+                            .collect(Collectors.toList()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        BookingMapper bookingMapper = new BookingMapperImpl();
+        bookings = bookingList.stream()
+                .map(bookingMapper::bookingToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] itemDtoEnhancedList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
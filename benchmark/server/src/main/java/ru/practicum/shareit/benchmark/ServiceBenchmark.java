@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.existence.service.ExistenceService;
+import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисный слой целиком, от репозиториев до DTO, на данных в H2 профиля test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int OWNERS = 50;
+    private static final int ITEMS_PER_OWNER = 20;
+    private static final int BOOKINGS_PER_ITEM = 6;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "20"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private List<Long> ownerIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        ownerIds = H2Dataset.seed(context, OWNERS, ITEMS_PER_OWNER, BOOKINGS_PER_ITEM, COMMENTS_PER_ITEM)
+                .getOwnerIds();
+        // данные вставлены репозиториями в обход сервисов, фильтр существования о них не знает
+        context.getBean(ExistenceService.class).rebuild();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoEnhanced> findItemsByOwner() {
+        return itemService.findByUserId(randomOwnerId(), PageRequest.of(0, pageSize));
+    }
+
+    @Benchmark
+    public List<BookingDto> findBookingsByOwner() {
+        return bookingService.findAllByOwner("ALL", randomOwnerId(), PageRequest.of(0, pageSize));
+    }
+
+    private Long randomOwnerId() {
+        return ownerIds.get(ThreadLocalRandom.current().nextInt(ownerIds.size()));
+    }
+}
@@ -0,0 +1,71 @@
+-- Запросы в том виде, в каком их строит Hibernate для репозиториев сервера; подключается из index-plans.sql.
+
+\echo '--- BookingRepository.findAllByBookerIdOrderByStartDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = 4242 ORDER BY b.start_date DESC LIMIT 10;
+
+\echo '--- BookingRepository.findAllByBookerIdAndStatusOrderByStartDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b WHERE b.booker_id = 4242 AND b.status = 'WAITING' ORDER BY b.start_date DESC LIMIT 10;
+
+\echo '--- BookingRepository.findAllByItemOwnerIdOrderByStartDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = 4242 ORDER BY b.start_date DESC LIMIT 10;
+
+\echo '--- BookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+WHERE i.owner_id = 4242 AND b.status = 'WAITING' ORDER BY b.start_date DESC LIMIT 10;
+
+\echo '--- BookingRepository.findAllByBookerIdAndItemIdAndStatusAndEndBefore'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bookings b
+WHERE b.booker_id = 4242 AND b.item_id = 55146 AND b.status = 'APPROVED' AND b.end_date < now();
+
+\echo '--- BookingRepository.findLastAndNextByItemIds'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.item_id, b.id, b.booker_id, b.is_last
+FROM (SELECT bk.item_id, bk.id, bk.booker_id, bk.start_date <= now() AS is_last,
+             ROW_NUMBER() OVER (PARTITION BY bk.item_id, bk.start_date <= now()
+                 ORDER BY CASE WHEN bk.start_date <= now() THEN bk.start_date END DESC, bk.start_date ASC) AS rn
+      FROM bookings bk
+      WHERE bk.item_id IN (SELECT i.id FROM items i WHERE i.owner_id = 4242) AND bk.status = 'APPROVED') b
+WHERE b.rn = 1;
+
+\echo '--- ItemRepository.findAllByOwnerIdOrderByIdAsc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.owner_id = 4242 ORDER BY i.id LIMIT 10;
+
+\echo '--- ItemRepository.findAllByRequestIn'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items i WHERE i.request_id IN (SELECT r.id FROM requests r WHERE r.requester_id = 4242);
+
+\echo '--- CommentRepository.findLatestByItemIds'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.item_id, c.id, c.text, u.name, c.created
+FROM (SELECT cm.*, ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.id DESC) AS rn
+      FROM comments cm
+      WHERE cm.item_id IN (SELECT i.id FROM items i WHERE i.owner_id = 4242)) c
+JOIN users u ON u.id = c.author_id
+WHERE c.rn <= 10;
+
+\echo '--- CommentRepository.countByItemIds'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.item_id, count(c.id) FROM comments c
+WHERE c.item_id IN (SELECT i.id FROM items i WHERE i.owner_id = 4242) GROUP BY c.item_id;
+
+\echo '--- CommentRepository.findPageByItemIdAfter'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM comments c
+WHERE c.item_id = 55146 AND (c.created < now() - INTERVAL '100 hours'
+    OR (c.created = now() - INTERVAL '100 hours' AND c.id < 500000))
+ORDER BY c.created DESC, c.id DESC LIMIT 10;
+
+\echo '--- ItemRequestRepository.findAllByRequesterIdOrderByCreatedAsc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM requests r WHERE r.requester_id = 4242 ORDER BY r.created;
+
+\echo '--- ItemRequestRepository.findAllByRequesterIdNotOrderByCreatedDesc'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM requests r WHERE r.requester_id <> 4242 ORDER BY r.created DESC LIMIT 10;
@@ -0,0 +1,100 @@
+-- Планы основных запросов ShareIt на PostgreSQL до и после индексов из server/src/main/resources/schema.sql.
+-- Данные: 100 тыс. пользователей, 200 тыс. запросов, 1 млн вещей, 5 млн бронирований, 1 млн комментариев.
+-- Запуск на отдельной базе (займёт несколько минут):
+--   psql -d shareit_bench -f index-plans.sql > index-plans.txt
+
+\set ON_ERROR_STOP on
+
+DROP SCHEMA IF EXISTS index_bench CASCADE;
+CREATE SCHEMA index_bench;
+SET search_path TO index_bench;
+
+CREATE TABLE users
+(
+    id              BIGINT          PRIMARY KEY,
+    name            VARCHAR(128)    NOT NULL,
+    email           VARCHAR(128)    UNIQUE NOT NULL
+);
+
+CREATE TABLE requests
+(
+    id              BIGINT          PRIMARY KEY,
+    description     VARCHAR(512)    NOT NULL,
+    requester_id    BIGINT          REFERENCES users (id),
+    created         TIMESTAMP       WITHOUT TIME ZONE
+);
+
+CREATE TABLE items
+(
+    id              BIGINT          PRIMARY KEY,
+    name            VARCHAR(128)    NOT NULL,
+    description     VARCHAR         NOT NULL,
+    is_available    BOOLEAN         DEFAULT FALSE,
+    owner_id        BIGINT          REFERENCES users (id),
+    request_id      BIGINT
+);
+
+CREATE TABLE bookings
+(
+    id              BIGINT          PRIMARY KEY,
+    start_date      TIMESTAMP       WITHOUT TIME ZONE NOT NULL,
+    end_date        TIMESTAMP       WITHOUT TIME ZONE NOT NULL,
+    item_id         BIGINT          REFERENCES items (id),
+    booker_id       BIGINT          REFERENCES users (id),
+    status          VARCHAR(32)
+);
+
+CREATE TABLE comments
+(
+    id              BIGINT          PRIMARY KEY,
+    text            VARCHAR(256),
+    item_id         BIGINT          REFERENCES items (id),
+    author_id       BIGINT          REFERENCES users (id),
+    created         TIMESTAMP       WITHOUT TIME ZONE
+);
+
+INSERT INTO users
+SELECT g, 'user' || g, 'user' || g || '@mail.ru'
+FROM generate_series(1, 100000) g;
+
+INSERT INTO requests
+SELECT g, 'request ' || g, 1 + (g * 7919) % 100000, now() - (g % 10000) * INTERVAL '1 hour'
+FROM generate_series(1, 200000) g;
+
+INSERT INTO items
+SELECT g, 'item ' || g, 'description ' || g, g % 10 <> 0, 1 + (g * 31) % 100000,
+       CASE WHEN g % 5 = 0 THEN 1 + g % 200000 END
+FROM generate_series(1, 1000000) g;
+
+INSERT INTO bookings
+SELECT g, s.start_date, s.start_date + INTERVAL '1 day', 1 + (g * 13) % 1000000, 1 + (g * 17) % 100000,
+       (ARRAY ['WAITING', 'APPROVED', 'APPROVED', 'REJECTED'])[1 + g % 4]
+FROM generate_series(1, 5000000) g,
+     LATERAL (SELECT now() + ((g % 20000) - 10000) * INTERVAL '1 hour' AS start_date) s;
+
+INSERT INTO comments
+SELECT g, 'comment ' || g, 1 + (g * 11) % 1000000, 1 + (g * 19) % 100000, now() - (g % 10000) * INTERVAL '1 hour'
+FROM generate_series(1, 1000000) g;
+
+ANALYZE;
+
+\echo '==================== Только первичные ключи ===================='
+\ir index-plans-queries.sql
+
+-- те же определения, что и в schema.sql
+CREATE INDEX bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+CREATE INDEX items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX items_request_idx ON items (request_id);
+CREATE INDEX requests_requester_created_idx ON requests (requester_id, created);
+CREATE INDEX requests_created_idx ON requests (created DESC);
+CREATE INDEX comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+
+ANALYZE;
+
+\echo '==================== С индексами schema.sql ===================='
+\ir index-plans-queries.sql
+
+DROP SCHEMA index_bench CASCADE;
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * Несколько GET-запросов к серверу за один вызов. Ответы возвращаются в порядке подзапросов,
+ * у каждого свой код статуса; сам пакет отвечает 200, если прошёл проверку.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping(path = "/batch")
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+
+    @PostMapping
+    public List<BatchResponseEntry> execute(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                            @RequestBody List<BatchEntry> requests,
+                                            HttpServletRequest request) {
+        log.info("Execute batch of {} requests by userId={}", requests == null ? 0 : requests.size(), userId);
+        return batchDispatcher.execute(requests, userId, RateLimitFilter.clientKey(request));
+    }
+}
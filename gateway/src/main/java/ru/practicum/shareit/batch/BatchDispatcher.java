@@ -0,0 +1,186 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.batch.dto.BatchEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+import ru.practicum.shareit.exception.model.MyValidationException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.ratelimit.RateLimitFilter;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Раздаёт подзапросы пакета существующим клиентам по префиксу пути и выполняет их параллельно.
+ * Поддерживаются только GET: изменения идут через обычные эндпоинты, где гейтвей проверяет тело
+ * и сбрасывает кеш ответов.
+ * Подзапросы выполняются в собственном ограниченном пуле: пакеты не занимают потоки Tomcat
+ * и не создают больше одновременных обращений к серверу, чем max-pool-size.
+ * Каждый подзапрос расходует маркер своего правила ограничения частоты, как если бы пришёл отдельно.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchDispatcher {
+    private final Map<String, BaseClient> routes = new LinkedHashMap<>();
+    private final ThreadPoolTaskExecutor executor;
+    private final BatchProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RateLimitFilter rateLimitFilter;
+
+    public BatchDispatcher(UserClient userClient, ItemClient itemClient, BookingClient bookingClient,
+                           ItemRequestClient itemRequestClient, BatchProperties properties,
+                           ObjectMapper objectMapper, RateLimitFilter rateLimitFilter) {
+        routes.put("/users", userClient);
+        routes.put("/items", itemClient);
+        routes.put("/bookings", bookingClient);
+        routes.put("/requests", itemRequestClient);
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getCorePoolSize());
+        executor.setMaxPoolSize(properties.getMaxPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("batch-");
+        executor.initialize();
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public List<BatchResponseEntry> execute(List<BatchEntry> entries, Long userId, String clientKey) {
+        if (entries == null || entries.isEmpty() || entries.size() > properties.getMaxRequests()) {
+            throw new MyValidationException(
+                    String.format("Пакет должен содержать от 1 до %d запросов.", properties.getMaxRequests()));
+        }
+
+        List<Future<ResponseEntity<Object>>> futures = new ArrayList<>(entries.size());
+        for (BatchEntry entry : entries) {
+            try {
+                futures.add(executor.submit(() -> route(entry, userId, clientKey)));
+            } catch (TaskRejectedException e) {
+                futures.add(null);
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        List<BatchResponseEntry> responses = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            responses.add(await(entries.get(i).getId(), futures.get(i), deadline));
+        }
+        return responses;
+    }
+
+    private ResponseEntity<Object> route(BatchEntry entry, Long userId, String clientKey) {
+        String path = entry.getPath();
+        if (entry.getMethod() != null && !HttpMethod.GET.matches(entry.getMethod().toUpperCase())) {
+            return error(HttpStatus.METHOD_NOT_ALLOWED, "В пакете допустимы только GET-запросы.");
+        }
+        // фигурные скобки были бы приняты за переменные шаблона адреса
+        if (path == null || path.indexOf('{') >= 0 || path.indexOf('}') >= 0 || !isNormalized(pathWithoutQuery(path))) {
+            return error(HttpStatus.BAD_REQUEST, "Некорректный путь подзапроса.");
+        }
+        for (Map.Entry<String, BaseClient> route : routes.entrySet()) {
+            String prefix = route.getKey();
+            if (path.equals(prefix) || path.startsWith(prefix + "/") || path.startsWith(prefix + "?")) {
+                if (rateLimitFilter.tryAcquire(HttpMethod.GET.name(), pathWithoutQuery(path), clientKey) > 0) {
+                    return error(HttpStatus.TOO_MANY_REQUESTS, "Слишком много запросов, повторите позже.");
+                }
+                return route.getValue().forwardGet(path.substring(prefix.length()), userId);
+            }
+        }
+        return error(HttpStatus.NOT_FOUND, String.format("Путь %s не поддерживается в пакете.", path));
+    }
+
+    // префикс сравнивается со строкой пути, поэтому путь должен быть уже нормализован:
+    // иначе /items/../actuator/prometheus прошёл бы проверку префикса /items
+    private static boolean isNormalized(String path) {
+        if (path.contains("//") || path.indexOf('%') >= 0 || path.indexOf('\\') >= 0
+                || path.indexOf(';') >= 0 || path.indexOf('#') >= 0) {
+            return false;
+        }
+        for (String segment : path.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String pathWithoutQuery(String path) {
+        int queryStart = path.indexOf('?');
+        return queryStart < 0 ? path : path.substring(0, queryStart);
+    }
+
+    private BatchResponseEntry await(String id, Future<ResponseEntity<Object>> future, long deadline) {
+        if (future == null) {
+            return new BatchResponseEntry(id, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    new ErrorResponse("Очередь пакетных запросов переполнена."));
+        }
+        try {
+            ResponseEntity<Object> response = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new BatchResponseEntry(id, response.getStatusCodeValue(), body(response.getBody()));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new BatchResponseEntry(id, HttpStatus.GATEWAY_TIMEOUT.value(),
+                    new ErrorResponse("Сервер не ответил за отведённое время."));
+        } catch (ExecutionException e) {
+            log.warn("Batch sub-request {} failed", id, e.getCause());
+            HttpStatus status = e.getCause() instanceof ResourceAccessException
+                    ? HttpStatus.BAD_GATEWAY
+                    : HttpStatus.INTERNAL_SERVER_ERROR;
+            return new BatchResponseEntry(id, status.value(), new ErrorResponse("Произошла непредвиденная ошибка."));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new BatchResponseEntry(id, HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    new ErrorResponse("Обработка пакета прервана."));
+        }
+    }
+
+    // тело ответа сервера с ошибкой приходит из BaseClient массивом байт
+    private Object body(Object body) {
+        if (!(body instanceof byte[])) {
+            return body;
+        }
+        byte[] bytes = (byte[]) body;
+        if (bytes.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, Object.class);
+        } catch (IOException e) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new ErrorResponse(message));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+public class BatchProperties {
+    private int maxRequests = 20;
+    private int corePoolSize = 8;
+    private int maxPoolSize = 32;
+    private int queueCapacity = 200;
+    // общее время ожидания всех подзапросов пакета
+    private Duration timeout = Duration.ofSeconds(10);
+}
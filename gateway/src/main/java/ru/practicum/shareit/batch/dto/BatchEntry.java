@@ -0,0 +1,15 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Подзапрос пакета: путь вместе с параметрами, например /bookings/owner?state=ALL.
+ */
+@Data
+@Builder
+public class BatchEntry {
+    private String id;
+    private String method;
+    private String path;
+}
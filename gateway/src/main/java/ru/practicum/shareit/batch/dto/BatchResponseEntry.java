@@ -0,0 +1,10 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Value;
+
+@Value
+public class BatchResponseEntry {
+    String id;
+    int status;
+    Object body;
+}
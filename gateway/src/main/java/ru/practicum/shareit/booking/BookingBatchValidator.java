@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.exception.model.MyValidationException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проверяет пакет бронирований целиком, чтобы клиент получил все ошибки пакета одним ответом.
+ */
+@Component
+public class BookingBatchValidator {
+    private final Validator validator;
+    private final int maxBatchSize;
+
+    public BookingBatchValidator(Validator validator,
+                                 @Value("${shareit-gateway.booking-batch.max-size:100}") int maxBatchSize) {
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void validate(List<BookingRequest> bookingRequests) {
+        if (bookingRequests == null || bookingRequests.isEmpty() || bookingRequests.size() > maxBatchSize) {
+            throw new MyValidationException(
+                    String.format("Пакет должен содержать от 1 до %d бронирований.", maxBatchSize));
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < bookingRequests.size(); i++) {
+            BookingRequest bookingRequest = bookingRequests.get(i);
+            if (bookingRequest == null) {
+                errors.add(String.format("[%d]: пустое бронирование", i));
+                continue;
+            }
+            for (ConstraintViolation<BookingRequest> violation : validator.validate(bookingRequest)) {
+                errors.add(String.format("[%d].%s: %s", i, violation.getPropertyPath(), violation.getMessage()));
+            }
+            if (bookingRequest.getStart() != null && bookingRequest.getEnd() != null
+                    && !bookingRequest.getStart().isBefore(bookingRequest.getEnd())) {
+                errors.add(String.format("[%d]: ошибка в датах бронирования", i));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new MyValidationException(String.join("; ", errors));
+        }
+    }
+}
@@ -10,51 +10,96 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.item.ItemResponseCache;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ItemResponseCache itemResponseCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpComponentsClientHttpRequestFactory requestFactory,
+                         RequestCoalescer requestCoalescer,
+                         ItemResponseCache itemResponseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                requestCoalescer
         );
+        this.itemResponseCache = itemResponseCache;
     }
 
     public ResponseEntity<Object> save(long userId, BookingRequest bookingRequest) {
-        return post("", userId, bookingRequest);
+        ResponseEntity<Object> response = post("", userId, bookingRequest);
+        itemResponseCache.evictItem(bookingRequest.getItemId());
+        return response;
+    }
+
+    public ResponseEntity<Object> saveAll(long userId, List<BookingRequest> bookingRequests) {
+        ResponseEntity<Object> response = post("/batch", userId, bookingRequests);
+        bookingRequests.forEach(bookingRequest -> itemResponseCache.evictItem(bookingRequest.getItemId()));
+        return response;
     }
 
     public ResponseEntity<Object> update(Long bookingId, Long userId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        ResponseEntity<Object> response = patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        // вещь бронирования гейтвею неизвестна, поэтому сбрасываются все закешированные карточки вещей
+        itemResponseCache.evictAllItems();
+        return response;
     }
 
     public ResponseEntity<Object> findById(Long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> findAllByState(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> countByBooker(long userId) {
+        return get("/summary", userId);
     }
 
-    public ResponseEntity<Object> findAllByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> countByOwner(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<Object> findAllByState(long userId, BookingState state, Integer from, Integer size,
+                                                 String after) {
+        return getPassThrough("?state={state}&from={from}&size={size}" + afterParameter(after), userId,
+                listParameters(state, from, size, after));
+    }
+
+    public ResponseEntity<Object> findAllByOwner(Long userId, BookingState state, Integer from, Integer size,
+                                                 String after) {
+        return getPassThrough("/owner?state={state}&from={from}&size={size}" + afterParameter(after), userId,
+                listParameters(state, from, size, after));
+    }
+
+    public void exportByOwner(long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, response);
+    }
+
+    private static String afterParameter(String after) {
+        return after == null ? "" : "&after={after}";
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 }
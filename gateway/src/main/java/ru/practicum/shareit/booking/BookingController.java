@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -14,14 +15,17 @@ import ru.practicum.shareit.exception.model.MyValidationException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Controller
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "blocking", matchIfMissing = true)
 @Slf4j
 @Validated
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingBatchValidator bookingBatchValidator;
 
     @PostMapping
     public ResponseEntity<Object> save(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -30,6 +34,14 @@ public class BookingController {
         return bookingClient.save(userId, bookingRequest);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> saveAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @RequestBody List<BookingRequest> bookingRequests) {
+        bookingBatchValidator.validate(bookingRequests);
+        log.info("Create {} bookings by userId={}", bookingRequests.size(), userId);
+        return bookingClient.saveAll(userId, bookingRequests);
+    }
+
     @PatchMapping("{bookingId}")
     public ResponseEntity<Object> update(@PathVariable Long bookingId,
                                          @RequestHeader("X-Sharer-User-Id") long userId,
@@ -38,6 +50,18 @@ public class BookingController {
         return bookingClient.update(bookingId, userId, isApprove);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<Object> countByBooker(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Count bookings by state, userId={}", userId);
+        return bookingClient.countByBooker(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> countByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Count owner bookings by state, userId={}", userId);
+        return bookingClient.countByOwner(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> findById(@RequestHeader("X-Sharer-User-Id") long userId,
                                            @PathVariable Long bookingId) {
@@ -49,21 +73,24 @@ public class BookingController {
     public ResponseEntity<Object> findAllByState(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(name = "state", defaultValue = "all") String state,
                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                 @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new MyValidationException("Unknown state: " + state));
-        log.info("Find booking with bookingState {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.findAllByState(userId, bookingState, from, size);
+        log.info("Find booking with bookingState {}, userId={}, from={}, size={}, after={}",
+                state, userId, from, size, after);
+        return bookingClient.findAllByState(userId, bookingState, from, size, after);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @RequestParam(defaultValue = "ALL") String state,
                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                 @Positive @RequestParam(defaultValue = "10") Integer size) {
+                                                 @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestParam(required = false) String after) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new MyValidationException("Unknown state: " + state));
-        log.info("Find all bookings by userId={}", userId);
-        return bookingClient.findAllByOwner(userId, bookingState, from, size);
+        log.info("Find all bookings by userId={}, after={}", userId, after);
+        return bookingClient.findAllByOwner(userId, bookingState, from, size, after);
     }
 }
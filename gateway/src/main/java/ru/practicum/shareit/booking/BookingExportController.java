@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Выгрузка идёт напрямую из потока ответа сервера в обоих режимах гейтвея.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+public class BookingExportController {
+    private final BookingClient bookingClient;
+
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                              HttpServletResponse response) throws IOException {
+        log.info("Export bookings by owner userId={}", userId);
+        bookingClient.exportByOwner(userId, response);
+    }
+}
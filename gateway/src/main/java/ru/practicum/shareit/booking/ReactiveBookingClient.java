@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> save(long userId, BookingRequest bookingRequest) {
+        return post("", userId, bookingRequest);
+    }
+
+    public Mono<ResponseEntity<Object>> saveAll(long userId, List<BookingRequest> bookingRequests) {
+        return post("/batch", userId, bookingRequests);
+    }
+
+    public Mono<ResponseEntity<Object>> update(Long bookingId, Long userId, Boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+    }
+
+    public Mono<ResponseEntity<Object>> findById(Long bookingId, long userId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> countByBooker(long userId) {
+        return get("/summary", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> countByOwner(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> findAllByState(long userId, BookingState state, Integer from, Integer size,
+                                                       String after) {
+        return get("?state={state}&from={from}&size={size}" + afterParameter(after), userId,
+                listParameters(state, from, size, after));
+    }
+
+    public Mono<ResponseEntity<Object>> findAllByOwner(Long userId, BookingState state, Integer from, Integer size,
+                                                       String after) {
+        return get("/owner?state={state}&from={from}&size={size}" + afterParameter(after), userId,
+                listParameters(state, from, size, after));
+    }
+
+    private static String afterParameter(String after) {
+        return after == null ? "" : "&after={after}";
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
+    }
+}
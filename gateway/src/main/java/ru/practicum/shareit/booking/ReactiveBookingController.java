@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.model.MyValidationException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+
+@Controller
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "reactive")
+@Slf4j
+@Validated
+@RequiredArgsConstructor
+@RequestMapping(path = "/bookings")
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+    private final BookingBatchValidator bookingBatchValidator;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> save(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @RequestBody @Valid BookingRequest bookingRequest) {
+        log.info("Create booking {} by userId={}", bookingRequest, userId);
+        return bookingClient.save(userId, bookingRequest);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> saveAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestBody List<BookingRequest> bookingRequests) {
+        bookingBatchValidator.validate(bookingRequests);
+        log.info("Create {} bookings by userId={}", bookingRequests.size(), userId);
+        return bookingClient.saveAll(userId, bookingRequests);
+    }
+
+    @PatchMapping("{bookingId}")
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long bookingId,
+                                               @RequestHeader("X-Sharer-User-Id") long userId,
+                                               @RequestParam(name = "approved") boolean isApprove) {
+        log.info("Update bookingId={}", bookingId);
+        return bookingClient.update(bookingId, userId, isApprove);
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<Object>> countByBooker(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Count bookings by state, userId={}", userId);
+        return bookingClient.countByBooker(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Mono<ResponseEntity<Object>> countByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Count owner bookings by state, userId={}", userId);
+        return bookingClient.countByOwner(userId);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> findById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @PathVariable Long bookingId) {
+        log.info("Find booking {}, userId={}", bookingId, userId);
+        return bookingClient.findById(bookingId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> findAllByState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(name = "state", defaultValue = "all") String state,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(required = false) String after) {
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new MyValidationException("Unknown state: " + state));
+        log.info("Find booking with bookingState {}, userId={}, from={}, size={}, after={}",
+                state, userId, from, size, after);
+        return bookingClient.findAllByState(userId, bookingState, from, size, after);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Object>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                       @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                       @RequestParam(required = false) String after) {
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new MyValidationException("Unknown state: " + state));
+        log.info("Find all bookings by userId={}, after={}", userId, after);
+        return bookingClient.findAllByOwner(userId, bookingState, from, size, after);
+    }
+}
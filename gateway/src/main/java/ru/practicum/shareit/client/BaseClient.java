@@ -1,22 +1,45 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 public class BaseClient {
+    private static final List<String> PASS_THROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, "X-Next-Cursor");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final RequestCoalescer coalescer;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable RequestCoalescer coalescer) {
         this.rest = rest;
+        this.coalescer = coalescer;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +54,45 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    /**
+     * GET без разбора ответа: тело сервера передаётся клиенту потоком байт вместе с Content-Type и X-Next-Cursor.
+     * Ответ с ошибкой, как и в {@link #get}, читается целиком и возвращается только со статусом.
+     * Не подходит для ответов, которые кешируются или разделяются между запросами: поток читается один раз.
+     */
+    protected ResponseEntity<Object> getPassThrough(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            response = request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        try {
+            int status = response.getRawStatusCode();
+            if (HttpStatus.Series.resolve(status) != HttpStatus.Series.SUCCESSFUL) {
+                try (response) {
+                    return ResponseEntity.status(status).body(StreamUtils.copyToByteArray(response.getBody()));
+                }
+            }
+            HttpHeaders headers = new HttpHeaders();
+            PASS_THROUGH_HEADERS.forEach(name -> {
+                List<String> values = response.getHeaders().get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            });
+            // ResourceHttpMessageConverter закрывает поток после записи, соединение возвращается в пул
+            return ResponseEntity.status(status).headers(headers)
+                    .body(new InputStreamResource(new ResponseClosingInputStream(response)));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -79,16 +141,110 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * GET по пути относительно префикса клиента, вместе с параметрами запроса. Используется пакетным эндпоинтом.
+     */
+    public ResponseEntity<Object> forwardGet(String path, Long userId) {
+        return get(path, userId, null);
+    }
+
+    /**
+     * Передаёт ответ сервера клиенту по мере получения, не собирая тело в памяти.
+     */
+    protected void stream(String path, Long userId, HttpServletResponse servletResponse) throws IOException {
+        passThrough(rest, HttpMethod.GET, path, userId, null, servletResponse, false);
+    }
+
+    /**
+     * Как {@link #stream}, но каждая прочитанная порция сразу отправляется клиенту: для потоков событий,
+     * которые иначе задерживались бы в буфере ответа.
+     */
+    protected void streamEvents(RestTemplate eventsRest, String path, Long userId,
+                                HttpServletResponse servletResponse) throws IOException {
+        passThrough(eventsRest, HttpMethod.GET, path, userId, null, servletResponse, true);
+    }
+
+    /**
+     * Пересылает тело запроса на сервер, ответ передаётся так же, как в {@link #stream}.
+     * Шаблон должен быть построен на фабрике без буферизации тела, иначе оно целиком окажется в памяти.
+     */
+    protected void upload(RestTemplate streamingRest, String path, Long userId, HttpServletRequest servletRequest,
+                          HttpServletResponse servletResponse) throws IOException {
+        passThrough(streamingRest, HttpMethod.POST, path, userId, servletRequest, servletResponse, false);
+    }
+
+    private static void passThrough(RestTemplate template, HttpMethod method, String path, Long userId,
+                                    @Nullable HttpServletRequest servletRequest,
+                                    HttpServletResponse servletResponse, boolean flushEachRead) throws IOException {
+        try {
+            template.execute(path, method,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.ALL));
+                        if (userId != null) {
+                            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                        }
+                        if (servletRequest != null) {
+                            if (servletRequest.getContentType() != null) {
+                                request.getHeaders().set(HttpHeaders.CONTENT_TYPE, servletRequest.getContentType());
+                            }
+                            StreamUtils.copy(servletRequest.getInputStream(), request.getBody());
+                        }
+                    },
+                    response -> {
+                        copyHead(response.getRawStatusCode(), response.getHeaders(), servletResponse);
+                        copyBody(response.getBody(), servletResponse, flushEachRead);
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            copyHead(e.getRawStatusCode(), e.getResponseHeaders(), servletResponse);
+            servletResponse.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private static void copyBody(InputStream body, HttpServletResponse servletResponse,
+                                 boolean flushEachRead) throws IOException {
+        OutputStream out = servletResponse.getOutputStream();
+        if (!flushEachRead) {
+            StreamUtils.copy(body, out);
+            return;
+        }
+        servletResponse.flushBuffer();
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+    }
+
+    private static void copyHead(int status, @Nullable HttpHeaders headers, HttpServletResponse servletResponse) {
+        servletResponse.setStatus(status);
+        if (headers != null && headers.getContentType() != null) {
+            servletResponse.setContentType(headers.getContentType().toString());
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        URI uri = expand(path, parameters);
+
+        if (method == HttpMethod.GET && coalescer != null) {
+            // ключ - полный адрес с параметрами и пользователь: ответ сервера зависит от X-Sharer-User-Id
+            return coalescer.execute(method + " " + uri + "|" + userId, () -> exchange(method, uri, requestEntity));
+        }
+        return exchange(method, uri, requestEntity);
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
 
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, URI uri, HttpEntity<T> requestEntity) {
         ResponseEntity<Object> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, Object.class);
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
@@ -118,4 +274,18 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static final class ResponseClosingInputStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        private ResponseClosingInputStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
 }
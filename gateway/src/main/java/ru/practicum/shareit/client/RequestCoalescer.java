@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Одинаковые одновременные GET к серверу выполняются один раз: первый запрос идёт на сервер,
+ * остальные ждут его ответ не дольше max-wait, после чего обращаются к серверу сами.
+ * Ответ не сохраняется после завершения вызова, кешированием занимается {@code ItemResponseCache}.
+ */
+@Component
+public class RequestCoalescer {
+    private static final String METRIC_NAME = "shareit.gateway.coalescing";
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final Counter leaders;
+    private final Counter collapsed;
+    private final Counter timeouts;
+
+    public RequestCoalescer(@Value("${shareit-gateway.coalescing.enabled:true}") boolean enabled,
+                            @Value("${shareit-gateway.coalescing.max-wait:2s}") Duration maxWait,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = meterRegistry.counter(METRIC_NAME, "result", "leader");
+        this.collapsed = meterRegistry.counter(METRIC_NAME, "result", "collapsed");
+        this.timeouts = meterRegistry.counter(METRIC_NAME, "result", "timeout");
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, own);
+        if (existing == null) {
+            leaders.increment();
+            try {
+                ResponseEntity<Object> response = call.get();
+                own.complete(response);
+                return response;
+            } catch (RuntimeException e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        collapsed.increment();
+        try {
+            return existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return call.get();
+        } catch (ExecutionException e) {
+            // ошибка соединения с сервером одна на всех ожидающих
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа сервера прервано.", e);
+        }
+    }
+}
@@ -6,34 +6,72 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ItemResponseCache responseCache;
+    private final RestTemplate uploadRest;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpComponentsClientHttpRequestFactory requestFactory,
+                      RequestCoalescer requestCoalescer,
+                      ItemResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                requestCoalescer
         );
+        this.responseCache = responseCache;
+
+        // тело импорта пересылается на сервер по мере чтения, а не собирается в памяти
+        HttpComponentsClientHttpRequestFactory uploadRequestFactory =
+                new HttpComponentsClientHttpRequestFactory(requestFactory.getHttpClient());
+        uploadRequestFactory.setBufferRequestBody(false);
+        this.uploadRest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .requestFactory(() -> uploadRequestFactory)
+                .build();
     }
 
     public ResponseEntity<Object> save(ItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        responseCache.evictSearch();
+        return response;
+    }
+
+    public void importItems(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            upload(uploadRest, "/import", userId, request, response);
+        } finally {
+            // часть порций могла сохраниться даже при ошибке посреди импорта
+            responseCache.evictSearch();
+        }
     }
 
     public ResponseEntity<Object> update(Long itemId, ItemDtoForUpdate itemDtoForUpdate, Long userId) {
-        return patch("/" + itemId, userId, itemDtoForUpdate);
+        ResponseEntity<Object> response = patch("/" + itemId, userId, itemDtoForUpdate);
+        responseCache.evictItem(itemId);
+        responseCache.evictSearch();
+        return response;
     }
 
     public ResponseEntity<Object> findByUserId(Long userId, Integer from, Integer size) {
@@ -41,11 +79,11 @@ public class ItemClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("?&from={from}&size={size}", userId, parameters);
+        return getPassThrough("?&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> findByItemId(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+        return responseCache.getItem(itemId, userId, () -> get("/" + itemId, userId));
     }
 
     public ResponseEntity<Object> findByWord(String text, Integer from, Integer size) {
@@ -54,10 +92,30 @@ public class ItemClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return responseCache.getSearch(text, from, size,
+                () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
     }
 
     public ResponseEntity<Object> saveComment(CommentDto commentDto, Long userId, Long itemId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        ResponseEntity<Object> response = post("/" + itemId + "/comment", userId, commentDto);
+        responseCache.evictItem(itemId);
+        return response;
+    }
+
+    public ResponseEntity<Object> findComments(Long itemId, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return get("/" + itemId + "/comments?size={size}" + (after == null ? "" : "&after={after}"), null, parameters);
+    }
+
+    public ResponseEntity<Object> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 }
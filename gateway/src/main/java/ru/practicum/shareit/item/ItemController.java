@@ -2,10 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.model.MyValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
@@ -13,9 +16,11 @@ import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 @Controller
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "blocking", matchIfMissing = true)
 @Slf4j
 @Validated
 @RequiredArgsConstructor
@@ -62,6 +67,14 @@ public class ItemController {
         return text.isBlank() ? ResponseEntity.ok(new ArrayList<>()) : itemClient.findByWord(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> findComments(@PathVariable long itemId,
+                                               @Positive @RequestParam(defaultValue = "10") Integer size,
+                                               @RequestParam(required = false) String after) {
+        log.info("Find comments of itemId={}, size={}, after={}", itemId, size, after);
+        return itemClient.findComments(itemId, size, after);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> saveComment(@Valid @RequestBody CommentDto commentDto,
                                               @RequestHeader("X-Sharer-User-Id") long userId,
@@ -69,4 +82,17 @@ public class ItemController {
         log.info("Create comment by userId={}", userId);
         return itemClient.saveComment(commentDto, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(@PathVariable long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new MyValidationException("Ошибка в датах периода.");
+        }
+        log.info("Find availability of itemId={} from={} to={}", itemId, from, to);
+        return itemClient.findAvailability(itemId, from, to);
+    }
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Импорт проходит через гейтвей потоком в обоих режимах, строки проверяет сервер.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/items")
+public class ItemImportController {
+    private final ItemClient itemClient;
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Import items by userId={}", userId);
+        itemClient.importItems(userId, request, response);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Component
+public class ItemResponseCache {
+    private static final String ITEM_PREFIX = "item|";
+    private static final String SEARCH_PREFIX = "search|";
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Cache<String, ResponseEntity<Object>> cache;
+    // поколение группы ключей (карточки одной вещи или поиск) растёт при каждом сбросе группы:
+    // ответ, загрузка которого началась до сброса, в кеш не попадает
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ItemResponseCache(@Value("${shareit-gateway.response-cache.maximum-size}") long maximumSize,
+                             @Value("${shareit-gateway.response-cache.ttl}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemResponses");
+    }
+
+    public ResponseEntity<Object> getItem(Long itemId, Long userId, Supplier<ResponseEntity<Object>> loader) {
+        // ответ зависит от пользователя: бронирования вещи видит только её владелец
+        return get(itemPrefix(itemId), itemPrefix(itemId) + userId, loader);
+    }
+
+    public ResponseEntity<Object> getSearch(String text, Integer from, Integer size,
+                                            Supplier<ResponseEntity<Object>> loader) {
+        return get(SEARCH_PREFIX, SEARCH_PREFIX + from + "|" + size + "|" + text, loader);
+    }
+
+    // только карточки вещи: бронирования и комментарии не меняют результаты поиска
+    public void evictItem(Long itemId) {
+        evictGroup(itemPrefix(itemId));
+    }
+
+    public void evictSearch() {
+        evictGroup(SEARCH_PREFIX);
+    }
+
+    public void evictAllItems() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        evictByPrefix(ITEM_PREFIX);
+    }
+
+    private ResponseEntity<Object> get(String group, String key, Supplier<ResponseEntity<Object>> loader) {
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(group);
+        long generation = generations.get(stripe);
+        ResponseEntity<Object> response = loader.get();
+        if (response.getStatusCode().is2xxSuccessful() && generations.get(stripe) == generation) {
+            cache.put(key, response);
+            // сброс мог пройти между проверкой и put, не застав новую запись
+            if (generations.get(stripe) != generation) {
+                cache.asMap().remove(key, response);
+            }
+        }
+        return response;
+    }
+
+    // поколение увеличивается до удаления: загрузка, которая положит ответ позже удаления, увидит новое поколение
+    private void evictGroup(String group) {
+        generations.incrementAndGet(stripe(group));
+        evictByPrefix(group);
+    }
+
+    private void evictByPrefix(String prefix) {
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private static int stripe(String group) {
+        return Math.floorMod(group.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static String itemPrefix(Long itemId) {
+        return ITEM_PREFIX + itemId + "|";
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.model.MyValidationException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+@Controller
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "reactive")
+@Slf4j
+@Validated
+@RequiredArgsConstructor
+@RequestMapping("/items")
+public class ReactiveItemController {
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> save(@RequestBody ItemDto itemDto,
+                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Create item by userId={}", userId);
+        return itemClient.save(itemDto, userId);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> update(@PathVariable("itemId") long itemId,
+                                               @Validated @RequestBody ItemDtoForUpdate itemDtoForUpdate,
+                                               @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Update item by itemId={}", itemId);
+        return itemClient.update(itemId, itemDtoForUpdate, userId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> findByItemId(@PathVariable("itemId") long itemId,
+                                                     @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Find item by itemId={}", itemId);
+        return itemClient.findByItemId(itemId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> findByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                     @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Find items by userId={}", userId);
+        return itemClient.findByUserId(userId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> findByWord(@RequestParam String text,
+                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Find items by word '{}'", text);
+        return text.isBlank()
+                ? Mono.just(ResponseEntity.ok(new ArrayList<>()))
+                : itemClient.findByWord(text, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> findComments(@PathVariable long itemId,
+                                                     @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                     @RequestParam(required = false) String after) {
+        log.info("Find comments of itemId={}, size={}, after={}", itemId, size, after);
+        return itemClient.findComments(itemId, size, after);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> saveComment(@Valid @RequestBody CommentDto commentDto,
+                                                    @RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @PathVariable long itemId) {
+        log.info("Create comment by userId={}", userId);
+        return itemClient.saveComment(commentDto, userId, itemId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> findAvailability(@PathVariable long itemId,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                         LocalDateTime from,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                         LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new MyValidationException("Ошибка в датах периода.");
+        }
+        log.info("Find availability of itemId={} from={} to={}", itemId, from, to);
+        return itemClient.findAvailability(itemId, from, to);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.model.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов до обращения к серверу: корзина на пару (правило, пользователь),
+ * для запросов без X-Sharer-User-Id - на пару (правило, адрес клиента).
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String METRIC_NAME = "shareit.gateway.rate-limited";
+
+    private final RateLimitProperties properties;
+    private final List<RateLimitProperties.Rule> rules;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = List.copyOf(properties.getRules());
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientKey = clientKey(request);
+        long waitNanos = tryAcquire(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()), clientKey);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        log.debug("Rate limit exceeded for {} {} by {}", request.getMethod(), request.getRequestURI(), clientKey);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Слишком много запросов, повторите позже."));
+    }
+
+    /**
+     * Списывает маркер из корзины первого подходящего правила. Вызывается и для подзапросов пакета,
+     * чтобы каждый из них расходовал корзину своего правила, а не одну корзину /batch.
+     *
+     * @return 0, если маркер выдан или правила нет, иначе сколько наносекунд ждать до следующего маркера
+     */
+    public long tryAcquire(String method, String path, String clientKey) {
+        int ruleIndex = properties.isEnabled() ? findRule(method, path) : -1;
+        if (ruleIndex < 0) {
+            return 0;
+        }
+        RateLimitProperties.Rule rule = rules.get(ruleIndex);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(ruleIndex + "|" + clientKey,
+                key -> new TokenBucket(rule.getCapacity(), rule.getRefillTokens(), rule.getRefillPeriod().toNanos(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter(METRIC_NAME, "rule", rule.getPath()).increment();
+        }
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit-gateway.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+    }
+
+    private int findRule(String method, String path) {
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if ((rule.getMethod() == null || rule.getMethod().isBlank() || rule.getMethod().equalsIgnoreCase(method))
+                    && pathMatcher.match(rule.getPath(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // в ключ попадает только число: произвольная строка в заголовке не должна плодить корзины
+    public static String clientKey(HttpServletRequest request) {
+        String userId = request.getHeader(USER_HEADER);
+        String addressKey = "addr:" + request.getRemoteAddr();
+        if (userId == null) {
+            return addressKey;
+        }
+        try {
+            return "user:" + Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            // такой запрос всё равно отклонит контроллер, а учитывается он по адресу клиента
+            return addressKey;
+        }
+    }
+}
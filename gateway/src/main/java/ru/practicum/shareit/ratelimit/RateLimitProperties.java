@@ -0,0 +1,45 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    // корзина, простоявшая полной дольше этого времени, удаляется
+    @NotNull
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    // применяется первое подходящее правило, запросы без правила не ограничиваются
+    @Valid
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+        // шаблон Ant, например /bookings/**
+        @NotBlank
+        private String path;
+        // пустой метод - любой
+        private String method;
+        @Positive
+        private long capacity;
+        // ноль дал бы деление на ноль в TokenBucket, поэтому приложение не стартует с таким правилом
+        @Positive
+        private long refillTokens;
+        @NotNull
+        private Duration refillPeriod = Duration.ofSeconds(1);
+    }
+}
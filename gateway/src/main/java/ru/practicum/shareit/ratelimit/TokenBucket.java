@@ -0,0 +1,42 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина маркеров без блокировок в виде GCRA: вместо числа маркеров хранится теоретическое время
+ * прихода следующего запроса, поэтому всё состояние помещается в один AtomicLong.
+ * Поведение совпадает с корзиной ёмкостью capacity, пополняемой на refillTokens за refillPeriodNanos.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long capacity, long refillTokens, long refillPeriodNanos, long now) {
+        this.intervalNanos = Math.max(1, refillPeriodNanos / refillTokens);
+        this.burstNanos = intervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0, если маркер выдан, иначе сколько наносекунд ждать до следующего маркера
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // корзина снова полна и не отличается от новой
+    boolean isIdle(long now, long idleNanos) {
+        return theoreticalArrival.get() + idleNanos <= now;
+    }
+}
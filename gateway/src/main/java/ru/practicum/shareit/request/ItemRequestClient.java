@@ -6,24 +6,44 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final RestTemplate eventsRest;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             HttpComponentsClientHttpRequestFactory requestFactory,
+                             RequestCoalescer requestCoalescer,
+                             HttpClientProperties properties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                requestCoalescer
         );
+
+        // поток событий молчит между пустыми событиями сервера дольше обычного таймаута чтения
+        HttpComponentsClientHttpRequestFactory eventsRequestFactory =
+                new HttpComponentsClientHttpRequestFactory(requestFactory.getHttpClient());
+        eventsRequestFactory.setReadTimeout((int) properties.getStreamReadTimeout().toMillis());
+        this.eventsRest = builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                .requestFactory(() -> eventsRequestFactory)
+                .build();
     }
 
     public ResponseEntity<Object> save(ItemRequestDto itemRequestDto, Long userId) {
@@ -31,7 +51,7 @@ public class ItemRequestClient extends BaseClient {
     }
 
     public ResponseEntity<Object> findByOwnerId(Long userId) {
-        return get("", userId);
+        return getPassThrough("", userId, null);
     }
 
     public ResponseEntity<Object> findAll(Integer from, Integer size, Long userId) {
@@ -39,10 +59,14 @@ public class ItemRequestClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return getPassThrough("/all?from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> findById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
+
+    public void stream(Long userId, HttpServletResponse response) throws IOException {
+        streamEvents(eventsRest, "/stream", userId, response);
+    }
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Поток событий сервера проксируется без буферизации в обоих режимах гейтвея.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping(path = "/requests")
+public class ItemRequestStreamController {
+    private final ItemRequestClient itemRequestClient;
+
+    @GetMapping("/stream")
+    public void stream(@RequestHeader("X-Sharer-User-Id") long userId, HttpServletResponse response) throws IOException {
+        log.info("Subscribe to item request events by userId={}", userId);
+        itemRequestClient.stream(userId, response);
+        log.info("Item request events stream closed for userId={}", userId);
+    }
+}
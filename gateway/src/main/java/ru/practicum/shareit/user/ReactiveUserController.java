@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserDtoForUpdate;
+
+@RestController
+@ConditionalOnProperty(name = "shareit-gateway.mode", havingValue = "reactive")
+@Slf4j
+@Validated
+@RequiredArgsConstructor
+@RequestMapping(path = "/users")
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> save(@RequestBody UserDto userDto) {
+        log.info("Create user {}", userDto);
+        return userClient.save(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> update(@PathVariable("userId") long userId,
+                                               @RequestBody UserDtoForUpdate userDtoForUpdate) {
+        log.info("Update user by userId={}", userId);
+        return userClient.update(userId, userDtoForUpdate);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> delete(@PathVariable("userId") long userId) {
+        log.info("Delete user by userId={}", userId);
+        return userClient.delete(userId);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> findById(@PathVariable("userId") long userId) {
+        log.info("Find user by userId={}", userId);
+        return userClient.findById(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> findAll() {
+        log.info("Find all users");
+        return userClient.findAll();
+    }
+}
@@ -2,11 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -18,7 +25,10 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public BookingDto save(@RequestBody @Valid BookingRequest bookingDto,
@@ -26,32 +36,72 @@ public class BookingController {
         return bookingService.save(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> saveAll(@RequestBody List<BookingRequest> bookingRequests,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.saveAll(bookingRequests, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto update(@PathVariable Long bookingId, @RequestParam Boolean approved,
                              @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingService.update(bookingId, userId, approved);
     }
 
+    @GetMapping("/summary")
+    public BookingSummaryDto countByBooker(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.countByBooker(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto countByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.countByOwner(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(bookingExportService.exportByOwner(userId));
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto findById(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingService.findByIdAndUserId(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingDto> findAllByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(defaultValue = "ALL") String state,
-                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.findAllByState(state, userId,
-                PageRequest.of((from == 0 ? 0 : (from / size)), size));
+    public ResponseEntity<List<BookingDto>> findAllByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after) {
+        if (after != null) {
+            return withNextCursor(bookingService.findAllByState(state, userId, KeysetCursor.decode(after), size), size);
+        }
+        return ResponseEntity.ok(bookingService.findAllByState(state, userId,
+                PageRequest.of((from == 0 ? 0 : (from / size)), size)));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                           @RequestParam(defaultValue = "ALL") String state,
-                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.findAllByOwner(state, userId,
-                PageRequest.of((from == 0 ? 0 : (from / size)), size));
+    public ResponseEntity<List<BookingDto>> findAllByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam(required = false) String after) {
+        if (after != null) {
+            return withNextCursor(bookingService.findAllByOwner(state, userId, KeysetCursor.decode(after), size), size);
+        }
+        return ResponseEntity.ok(bookingService.findAllByOwner(state, userId,
+                PageRequest.of((from == 0 ? 0 : (from / size)), size)));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
 }
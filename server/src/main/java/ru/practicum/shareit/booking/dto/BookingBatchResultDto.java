@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Результат обработки одного элемента пакета: созданная бронь либо причина отказа.
+ */
+@Value
+@Builder
+public class BookingBatchResultDto {
+    int index;
+    BookingDto booking;
+    String error;
+}
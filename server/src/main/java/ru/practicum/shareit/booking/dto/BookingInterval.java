@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@AllArgsConstructor
+public class BookingInterval {
+    Long itemId;
+    Long bookingId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
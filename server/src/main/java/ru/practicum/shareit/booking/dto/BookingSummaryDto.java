@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+/**
+ * Количество бронирований пользователя по каждому BookingState.
+ */
+@Value
+public class BookingSummaryDto {
+    long all;
+    long current;
+    long past;
+    long future;
+    long waiting;
+    long rejected;
+
+    // SUM по пустой выборке возвращает null
+    public BookingSummaryDto(Long all, Long current, Long past, Long future, Long waiting, Long rejected) {
+        this.all = valueOrZero(all);
+        this.current = valueOrZero(current);
+        this.past = valueOrZero(past);
+        this.future = valueOrZero(future);
+        this.waiting = valueOrZero(waiting);
+        this.rejected = valueOrZero(rejected);
+    }
+
+    private static long valueOrZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingItemShort;
 import ru.practicum.shareit.booking.model.Booking;
 
 public class BookingMapperShort {
@@ -10,4 +11,11 @@ public class BookingMapperShort {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingDtoShort bookingItemShortToBookingDtoShort(BookingItemShort booking) {
+        return BookingDtoShort.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
 }
@@ -1,52 +1,114 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingItemShort;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    // условия совпадают с запросами списков по BookingState, чтобы счётчики сходились со списками
+    String SUMMARY_SELECT = "SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "SUM(CASE WHEN b.start < :now AND b.end > :now THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.end < :now THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start > :now THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = :waiting THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = :rejected THEN 1 ELSE 0 END)) " +
+            "FROM Booking b ";
+
+    @Override
+    @EntityGraph(Booking.FULL_GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long bookerId, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(Booking.FULL_GRAPH)
     List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
 
+    // курсор только вперёд: строки читаются порциями по fetchSize, а не целиком в память
+    @EntityGraph(Booking.FULL_GRAPH)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Booking> streamAllByItemOwnerIdOrderByStartDescIdDesc(Long ownerId);
+
     List<Booking> findAllByBookerIdAndItemIdAndStatusAndEndBefore(
             Long userId, Long itemId, BookingStatus status, LocalDateTime end);
 
-    Optional<Booking> findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-            Item itemId, LocalDateTime now, BookingStatus status);
-
-    Optional<Booking> findFirstByItemAndStartAfterAndStatusIsOrderByStartAsc(
-            Item itemId, LocalDateTime now, BookingStatus status);
-
-    List<Booking> findAllByItemInAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-            List<Item> items, LocalDateTime now, BookingStatus status);
-
-    List<Booking> findAllByItemInAndStartAfterAndStatusIsOrderByStartAsc(
-            List<Item> items, LocalDateTime now, BookingStatus status);
+    // пересечение периода [start, end) с другой бронью вещи в заданном статусе
+    boolean existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(
+            Long itemId, Long bookingId, BookingStatus status, LocalDateTime end, LocalDateTime start);
+
+    @Query(value = "SELECT b.item_id AS \"itemId\", b.id AS \"id\", b.booker_id AS \"bookerId\", " +
+            "b.is_last AS \"last\" " +
+            "FROM (SELECT bk.item_id, bk.id, bk.booker_id, bk.start_date <= :now AS is_last, " +
+            "ROW_NUMBER() OVER (PARTITION BY bk.item_id, bk.start_date <= :now " +
+            "ORDER BY CASE WHEN bk.start_date <= :now THEN bk.start_date END DESC, bk.start_date ASC) AS rn " +
+            "FROM bookings bk " +
+            "WHERE bk.item_id IN (:itemIds) AND bk.status = :status) b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<BookingItemShort> findLastAndNextByItemIds(@Param("itemIds") List<Long> itemIds,
+                                                     @Param("now") LocalDateTime now,
+                                                     @Param("status") String status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingInterval(b.item.id, b.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status IN :statuses AND b.end > :now")
+    List<BookingInterval> findActiveIntervals(@Param("statuses") List<BookingStatus> statuses,
+                                              @Param("now") LocalDateTime now);
+
+    @Query(SUMMARY_SELECT + "WHERE b.booker.id = :userId")
+    BookingSummaryDto countByBooker(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                    @Param("waiting") BookingStatus waiting,
+                                    @Param("rejected") BookingStatus rejected);
+
+    @Query(SUMMARY_SELECT + "WHERE b.item.owner.id = :userId")
+    BookingSummaryDto countByOwner(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                   @Param("waiting") BookingStatus waiting,
+                                   @Param("rejected") BookingStatus rejected);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<Booking> findPageByBooker(Long bookerId, BookingState state, LocalDateTime now,
+                                   KeysetCursor after, int size);
+
+    List<Booking> findPageByOwner(Long ownerId, BookingState state, LocalDateTime now,
+                                  KeysetCursor after, int size);
+}
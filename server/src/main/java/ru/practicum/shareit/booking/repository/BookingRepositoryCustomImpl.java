@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Постраничная выборка бронирований по ключу (start, id) вместо OFFSET:
+ * следующая страница начинается сразу после последней записи предыдущей,
+ * поэтому стоимость запроса не зависит от номера страницы.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPageByBooker(Long bookerId, BookingState state, LocalDateTime now,
+                                          KeysetCursor after, int size) {
+        return findPage((cb, booking) -> cb.equal(booking.get("booker").get("id"), bookerId),
+                state, now, after, size);
+    }
+
+    @Override
+    public List<Booking> findPageByOwner(Long ownerId, BookingState state, LocalDateTime now,
+                                         KeysetCursor after, int size) {
+        return findPage((cb, booking) -> cb.equal(booking.get("item").get("owner").get("id"), ownerId),
+                state, now, after, size);
+    }
+
+    private List<Booking> findPage(UserPredicate userPredicate, BookingState state, LocalDateTime now,
+                                   KeysetCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(userPredicate.build(cb, booking));
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getPosition()),
+                    cb.and(cb.equal(start, after.getPosition()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Booking.FULL_GRAPH))
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private interface UserPredicate {
+        Predicate build(CriteriaBuilder cb, Root<Booking> booking);
+    }
+}
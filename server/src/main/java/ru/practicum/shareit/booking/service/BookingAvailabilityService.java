@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+public interface BookingAvailabilityService {
+    Booking reserve(Booking booking, UnaryOperator<Booking> saver);
+
+    void release(Booking booking);
+
+    void removeItem(Long itemId);
+
+    boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    List<TimeSlotDto> findFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to);
+}
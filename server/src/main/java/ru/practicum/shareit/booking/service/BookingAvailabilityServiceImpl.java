@@ -0,0 +1,156 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.MyValidationException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.model.BookingStatus.WAITING;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingAvailabilityServiceImpl implements BookingAvailabilityService {
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemIntervals> itemIdToIntervals = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        List<BookingInterval> intervals = bookingRepository.findActiveIntervals(
+                List.of(WAITING, APPROVED), LocalDateTime.now());
+        long overlapping = 0;
+        for (BookingInterval interval : intervals) {
+            ItemIntervals itemIntervals = getIntervals(interval.getItemId());
+            if (itemIntervals.overlaps(interval.getStart(), interval.getEnd())) {
+                overlapping++;
+            }
+            itemIntervals.add(interval);
+        }
+        log.info(String.format("Загружено активных бронирований:%d", intervals.size()));
+        if (overlapping > 0) {
+            // сохранены до появления проверки пересечений; дерево интервалов учитывает их как есть
+            log.warn(String.format("Среди активных бронирований пересекаются с другими бронями той же вещи:%d",
+                    overlapping));
+        }
+    }
+
+    @Override
+    public Booking reserve(Booking booking, UnaryOperator<Booking> saver) {
+        Long itemId = booking.getItem().getId();
+        ItemIntervals intervals = getIntervals(itemId);
+        synchronized (intervals) {
+            intervals.removeFinishedBefore(LocalDateTime.now());
+            if (intervals.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new MyValidationException(
+                        String.format("Вещь с ID:%d уже забронирована на выбранные даты", itemId));
+            }
+            Booking saved = saver.apply(booking);
+            BookingInterval interval = new BookingInterval(itemId, saved.getId(), saved.getStart(), saved.getEnd());
+            intervals.add(interval);
+            releaseOnRollback(interval);
+            return saved;
+        }
+    }
+
+    @Override
+    public void release(Booking booking) {
+        BookingInterval interval = new BookingInterval(
+                booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeInterval(interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeInterval(interval);
+            }
+        });
+    }
+
+    @Override
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = itemIdToIntervals.get(itemId);
+        if (intervals == null) {
+            return true;
+        }
+        synchronized (intervals) {
+            return !intervals.overlaps(start, end);
+        }
+    }
+
+    @Override
+    public List<TimeSlotDto> findFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new MyValidationException("Ошибка в датах периода.");
+        }
+        List<BookingInterval> busy = new ArrayList<>();
+        ItemIntervals intervals = itemIdToIntervals.get(itemId);
+        if (intervals != null) {
+            synchronized (intervals) {
+                busy = intervals.findOverlapping(from, to);
+            }
+        }
+
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : busy) {
+            if (interval.getStart().isAfter(cursor)) {
+                free.add(TimeSlotDto.builder().start(cursor).end(interval.getStart()).build());
+            }
+            if (interval.getEnd().isAfter(cursor)) {
+                cursor = interval.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(TimeSlotDto.builder().start(cursor).end(to).build());
+        }
+        return free;
+    }
+
+    @Override
+    public void removeItem(Long itemId) {
+        itemIdToIntervals.remove(itemId);
+    }
+
+    private ItemIntervals getIntervals(Long itemId) {
+        return itemIdToIntervals.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private void removeInterval(BookingInterval interval) {
+        ItemIntervals intervals = itemIdToIntervals.get(interval.getItemId());
+        if (intervals != null) {
+            synchronized (intervals) {
+                intervals.remove(interval);
+            }
+        }
+    }
+
+    private void releaseOnRollback(BookingInterval interval) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    removeInterval(interval);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface BookingExportService {
+    StreamingResponseBody exportByOwner(Long userId);
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.existence.service.ExistenceService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка истории бронирований владельца в формате NDJSON: по одной брони в строке.
+ * Брони читаются курсором и пишутся в ответ по мере чтения, поэтому память не зависит от размера истории.
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+    private static final int NEW_LINE = '\n';
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final ExistenceService existenceService;
+    private final ObjectWriter objectWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository, BookingMapper bookingMapper,
+                                    ExistenceService existenceService, ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.existenceService = existenceService;
+        this.objectWriter = objectMapper.writerFor(BookingDto.class);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportByOwner(Long userId) {
+        log.info(String.format("Выгрузка бронирований владельца с ID:%d", userId));
+        existenceService.checkUser(userId);
+        // тело пишется уже после выхода из контроллера, поэтому транзакция открывается на время записи
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> write(userId, outputStream));
+    }
+
+    private void write(Long userId, OutputStream outputStream) {
+        OutputStream out = new BufferedOutputStream(outputStream);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerIdOrderByStartDescIdDesc(userId)) {
+            for (Booking booking : (Iterable<Booking>) bookings::iterator) {
+                out.write(objectWriter.writeValueAsBytes(bookingMapper.bookingToBookingDto(booking)));
+                out.write(NEW_LINE);
+                entityManager.detach(booking);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
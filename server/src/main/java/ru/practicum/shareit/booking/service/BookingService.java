@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto save(BookingRequest bookingDto, Long userId);
 
+    List<BookingBatchResultDto> saveAll(List<BookingRequest> bookingRequests, Long userId);
+
     BookingDto update(Long bookingId, Long userId, Boolean approved);
 
     BookingDto findByIdAndUserId(Long bookingId, Long userId);
@@ -16,4 +21,12 @@ public interface BookingService {
     List<BookingDto> findAllByState(String state, Long userId, Pageable pageable);
 
     List<BookingDto> findAllByOwner(String state, Long userId, Pageable pageable);
+
+    List<BookingDto> findAllByState(String state, Long userId, KeysetCursor after, Integer size);
+
+    BookingSummaryDto countByBooker(Long userId);
+
+    BookingSummaryDto countByOwner(Long userId);
+
+    List<BookingDto> findAllByOwner(String state, Long userId, KeysetCursor after, Integer size);
 }
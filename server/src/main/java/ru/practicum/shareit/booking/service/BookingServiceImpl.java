@@ -1,80 +1,146 @@
 package ru.practicum.shareit.booking.service;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.ConflictException;
 import ru.practicum.shareit.exception.model.MyValidationException;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.existence.service.ExistenceService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.transaction.OptimisticRetry;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final UserMapper userMapper;
     private final BookingMapper bookingMapper;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final ExistenceService existenceService;
+    private final OptimisticRetry optimisticRetry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // весь пакет сохраняется одной транзакцией, поэтому размер ограничен и на сервере, а не только в гейтвее
+    @Value("${shareit.bookings.batch-max-size:100}")
+    private int batchMaxSize;
 
     @Override
+    @Transactional
     public BookingDto save(BookingRequest bookingRequest, Long bookerId) {
         log.info("Сохранение бронирования.");
-        User booker = userRepository.findById(bookerId).orElseThrow(() -> new NotFoundException(bookerId.toString()));
+        User booker = userMapper.userDtoToUser(userService.findById(bookerId));
         Item item = itemRepository.findById(bookingRequest.getItemId())
                 .orElseThrow(() -> new NotFoundException(bookingRequest.getItemId().toString()));
-        if (Objects.equals(item.getOwner().getId(), bookerId)) {
-            throw new NotFoundException("Нельзя взять в аренду свою вещь.");
-        }
-        if (!bookingRequest.getStart().isBefore(bookingRequest.getEnd())) {
-            throw new MyValidationException("Ошибка в датах бронирования.");
+        Booking booking = prepareBooking(bookingRequest, booker, item);
+        Booking savedBooking = bookingAvailabilityService.reserve(booking, bookingRepository::save);
+        return bookingMapper.bookingToBookingDto(savedBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> saveAll(List<BookingRequest> bookingRequests, Long bookerId) {
+        log.info(String.format("Пакетное сохранение бронирований, количество:%d", bookingRequests.size()));
+        if (bookingRequests.isEmpty() || bookingRequests.size() > batchMaxSize) {
+            throw new MyValidationException(
+                    String.format("Пакет должен содержать от 1 до %d бронирований.", batchMaxSize));
         }
-        if (!item.getAvailable()) {
-            throw new MyValidationException(String.format("В данный момент вещь с ID:%d недоступна", item.getId()));
+        User booker = userMapper.userDtoToUser(userService.findById(bookerId));
+        Set<Long> itemIds = bookingRequests.stream()
+                .map(BookingRequest::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        // идентификаторы берутся из последовательности, поэтому вставки уходят в базу пачкой при фиксации транзакции
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingRequests.size());
+        for (int i = 0; i < bookingRequests.size(); i++) {
+            BookingRequest bookingRequest = bookingRequests.get(i);
+            try {
+                Item item = items.get(bookingRequest.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(String.format("Вещь с ID:%d отсутствует в базе", bookingRequest.getItemId()));
+                }
+                Booking booking = prepareBooking(bookingRequest, booker, item);
+                Booking savedBooking = bookingAvailabilityService.reserve(booking, bookingRepository::save);
+                results.add(BookingBatchResultDto.builder()
+                        .index(i)
+                        .booking(bookingMapper.bookingToBookingDto(savedBooking))
+                        .build());
+            } catch (NotFoundException | MyValidationException e) {
+                results.add(BookingBatchResultDto.builder()
+                        .index(i)
+                        .error(e.getMessage())
+                        .build());
+            }
         }
-        Booking booking = bookingMapper.bookingRequestToBooking(bookingRequest);
-        booking.setBooker(booker);
-        booking.setItem(item);
-        booking.setStatus(WAITING);
-        return bookingMapper.bookingToBookingDto(bookingRepository.save(booking));
+        return results;
     }
 
     @Override
     public BookingDto update(Long bookingId, Long userId, Boolean isApprove) {
         log.info(String.format("Обновление брони c ID:%d", bookingId));
+        // каждая попытка в своей транзакции: после конфликта версий статус и пересечения читаются заново
+        return optimisticRetry.execute(() -> changeStatus(bookingId, userId, isApprove));
+    }
+
+    private BookingDto changeStatus(Long bookingId, Long userId, Boolean isApprove) {
         Booking booking = findById(bookingId);
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new NotFoundException(
                     String.format("Ошибка доступа. Изменить статус вещи с ID:%d может только её владелец.", bookingId));
         }
-        if (booking.getStatus().equals(WAITING)) {
-            booking.setStatus(isApprove ? APPROVED : REJECTED);
-        } else {
+        if (!booking.getStatus().equals(WAITING)) {
             throw new MyValidationException("Ошибка изменения статуса.");
         }
-        return bookingMapper.bookingToBookingDto(bookingRepository.save(booking));
+        if (isApprove) {
+            checkNoApprovedOverlap(booking);
+            booking.setStatus(APPROVED);
+        } else {
+            booking.setStatus(REJECTED);
+        }
+        Booking updatedBooking = bookingRepository.save(booking);
+        if (updatedBooking.getStatus() == REJECTED) {
+            bookingAvailabilityService.release(updatedBooking);
+        }
+        return bookingMapper.bookingToBookingDto(updatedBooking);
     }
 
     @Override
@@ -92,7 +158,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> findAllByState(String state, Long userId, Pageable pageable) {
         log.info(String.format("Поиск списка брони для пользователя с ID:%d по статусу:%s", userId, state));
-        userMapper.userDtoToUser(userService.findById(userId));
+        existenceService.checkUser(userId);
         checkValidState(state);
         switch (BookingState.valueOf(state)) {
             case ALL:
@@ -137,7 +203,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> findAllByOwner(String state, Long userId, Pageable pageable) {
         log.info(String.format("Поиск списка брони для пользователя с ID:%d по статусу:%s", userId, state));
-        userMapper.userDtoToUser(userService.findById(userId));
+        existenceService.checkUser(userId);
         checkValidState(state);
         switch (BookingState.valueOf(state)) {
             case ALL:
@@ -179,6 +245,72 @@ public class BookingServiceImpl implements BookingService {
         return new ArrayList<>();
     }
 
+    @Override
+    public List<BookingDto> findAllByState(String state, Long userId, KeysetCursor after, Integer size) {
+        log.info(String.format("Поиск списка брони для пользователя с ID:%d по статусу:%s после курсора", userId, state));
+        existenceService.checkUser(userId);
+        checkValidState(state);
+        return bookingRepository.findPageByBooker(userId, BookingState.valueOf(state), LocalDateTime.now(), after, size)
+                .stream()
+                .map(bookingMapper::bookingToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<BookingDto> findAllByOwner(String state, Long userId, KeysetCursor after, Integer size) {
+        log.info(String.format("Поиск списка брони владельца с ID:%d по статусу:%s после курсора", userId, state));
+        existenceService.checkUser(userId);
+        checkValidState(state);
+        return bookingRepository.findPageByOwner(userId, BookingState.valueOf(state), LocalDateTime.now(), after, size)
+                .stream()
+                .map(bookingMapper::bookingToBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public BookingSummaryDto countByBooker(Long userId) {
+        log.info(String.format("Подсчёт бронирований пользователя с ID:%d по статусам", userId));
+        existenceService.checkUser(userId);
+        return bookingRepository.countByBooker(userId, LocalDateTime.now(), WAITING, REJECTED);
+    }
+
+    @Override
+    public BookingSummaryDto countByOwner(Long userId) {
+        log.info(String.format("Подсчёт бронирований вещей владельца с ID:%d по статусам", userId));
+        existenceService.checkUser(userId);
+        return bookingRepository.countByOwner(userId, LocalDateTime.now(), WAITING, REJECTED);
+    }
+
+    private Booking prepareBooking(BookingRequest bookingRequest, User booker, Item item) {
+        if (Objects.equals(item.getOwner().getId(), booker.getId())) {
+            throw new NotFoundException("Нельзя взять в аренду свою вещь.");
+        }
+        if (bookingRequest.getStart() == null || bookingRequest.getEnd() == null
+                || !bookingRequest.getStart().isBefore(bookingRequest.getEnd())) {
+            throw new MyValidationException("Ошибка в датах бронирования.");
+        }
+        if (!item.getAvailable()) {
+            throw new MyValidationException(String.format("В данный момент вещь с ID:%d недоступна", item.getId()));
+        }
+        Booking booking = bookingMapper.bookingRequestToBooking(bookingRequest);
+        booking.setBooker(booker);
+        booking.setItem(item);
+        booking.setStatus(WAITING);
+        return booking;
+    }
+
+    private void checkNoApprovedOverlap(Booking booking) {
+        Item item = booking.getItem();
+        // версия вещи увеличится при фиксации: из двух параллельных подтверждений броней одной вещи
+        // одно получит конфликт версий и при повторе увидит уже подтверждённую бронь
+        entityManager.lock(item, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        if (bookingRepository.existsByItemIdAndIdNotAndStatusAndStartBeforeAndEndAfter(
+                item.getId(), booking.getId(), APPROVED, booking.getEnd(), booking.getStart())) {
+            throw new ConflictException(
+                    String.format("Вещь с ID:%d уже забронирована на выбранные даты", item.getId()));
+        }
+    }
+
     private Booking findById(Long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException(String.format("Бронь с ID:%d отсутствует в базе", bookingId)));
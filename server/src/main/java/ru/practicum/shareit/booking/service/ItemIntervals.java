@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Полуинтервалы [start, end) активных бронирований одной вещи в дереве интервалов: декартово дерево
+ * по началу, в каждом узле хранится наибольший конец в поддереве. Интервалы могут пересекаться
+ * (так бывает с данными, сохранёнными до появления проверки), поиск пересечения всё равно идёт за O(log n).
+ * Не потокобезопасен: вызывающий код синхронизируется на экземпляре.
+ */
+class ItemIntervals {
+    private static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getBookingId);
+    private static final Comparator<BookingInterval> BY_END = Comparator
+            .comparing(BookingInterval::getEnd)
+            .thenComparing(BookingInterval::getBookingId);
+
+    private Node root;
+    // те же интервалы по концу - для удаления завершившихся без обхода всего дерева
+    private final TreeSet<BookingInterval> byEnd = new TreeSet<>(BY_END);
+
+    void add(BookingInterval interval) {
+        if (byEnd.add(interval)) {
+            root = insert(root, new Node(interval));
+        }
+    }
+
+    void remove(BookingInterval interval) {
+        if (byEnd.remove(interval)) {
+            root = delete(root, interval);
+        }
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.interval.getStart().isBefore(end) && node.interval.getEnd().isAfter(start)) {
+                return true;
+            }
+            // если левое поддерево заканчивается позже start, но не пересекается с периодом,
+            // то оно начинается не раньше end, а правое - ещё позже
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    // пересекающиеся с периодом интервалы по возрастанию начала
+    List<BookingInterval> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    void removeFinishedBefore(LocalDateTime moment) {
+        while (!byEnd.isEmpty() && !byEnd.first().getEnd().isAfter(moment)) {
+            root = delete(root, byEnd.pollFirst());
+        }
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<BookingInterval> result) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (!node.interval.getStart().isBefore(to)) {
+            return;
+        }
+        if (node.interval.getEnd().isAfter(from)) {
+            result.add(node.interval);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (BY_START.compare(added.interval, node.interval) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, BookingInterval interval) {
+        if (node == null) {
+            return null;
+        }
+        int compare = BY_START.compare(interval, node.interval);
+        if (compare < 0) {
+            node.left = delete(node.left, interval);
+        } else if (compare > 0) {
+            node.right = delete(node.right, interval);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    // все ключи left меньше ключей right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.interval.getEnd();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        private final BookingInterval interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEnd();
+        }
+    }
+}
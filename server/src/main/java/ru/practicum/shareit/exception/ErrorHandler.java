@@ -1,44 +1,77 @@
 package ru.practicum.shareit.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.model.ConflictException;
 import ru.practicum.shareit.exception.model.ErrorResponse;
 import ru.practicum.shareit.exception.model.NotFoundException;
 import ru.practicum.shareit.exception.model.MyValidationException;
 import ru.practicum.shareit.exception.model.WrongUserIdException;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ErrorHandler {
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleNotValidException(final MethodArgumentNotValidException e) {
+        count(e, HttpStatus.BAD_REQUEST);
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse myValidationException(final MyValidationException e) {
+        count(e, HttpStatus.BAD_REQUEST);
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleWrongUserIdException(final WrongUserIdException e) {
+        count(e, HttpStatus.FORBIDDEN);
         return new ErrorResponse(e.getMessage());
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final NotFoundException e) {
+        count(e, HttpStatus.NOT_FOUND);
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException e) {
+        count(e, HttpStatus.CONFLICT);
         return new ErrorResponse(e.getMessage());
     }
 
+    // запись изменена параллельным запросом, а повторы исчерпаны или не предусмотрены
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        count(e, HttpStatus.CONFLICT);
+        return new ErrorResponse("Данные изменены параллельным запросом, повторите попытку.");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
+        count(e, HttpStatus.INTERNAL_SERVER_ERROR);
         return new ErrorResponse("Произошла непредвиденная ошибка.");
     }
+
+    private void count(Throwable e, HttpStatus status) {
+        meterRegistry.counter("shareit.errors",
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
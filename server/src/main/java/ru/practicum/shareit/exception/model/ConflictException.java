@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.model;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.existence.service;
+
+public interface ExistenceService {
+    void checkUser(Long userId);
+
+    void checkItem(Long itemId);
+
+    void userAdded(Long userId);
+
+    void itemAdded(Long itemId);
+
+    void rebuild();
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.existence.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.BitSet;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Проверка существования пользователей и вещей по первичному ключу. Перед запросом к базе ID проверяется
+ * по битовой карте в памяти, поэтому несуществующие ID отклоняются без обращения к базе, а затем по кешам
+ * users и items: запись в кеше тоже доказывает существование, и база не запрашивается.
+ * Карта дополняется при сохранении и целиком пересобирается по расписанию, чтобы убрать удалённые ID.
+ * Карта видит только записи, сохранённые этим экземпляром сервера: при нескольких экземплярах
+ * фильтр нужно отключить (shareit.existence.filter-enabled=false).
+ */
+@Slf4j
+@Service
+public class ExistenceServiceImpl implements ExistenceService {
+    private static final String METRIC_NAME = "shareit.existence";
+    private static final String USERS_CACHE = "users";
+    private static final String ITEMS_CACHE = "items";
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean filterEnabled;
+    private final IdFilter users = new IdFilter();
+    private final IdFilter items = new IdFilter();
+    private final Counter usersRejected;
+    private final Counter usersCached;
+    private final Counter usersQueried;
+    private final Counter itemsRejected;
+    private final Counter itemsCached;
+    private final Counter itemsQueried;
+
+    public ExistenceServiceImpl(UserRepository userRepository,
+                                ItemRepository itemRepository,
+                                CacheManager cacheManager,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${shareit.existence.filter-enabled:true}") boolean filterEnabled) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.cacheManager = cacheManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.filterEnabled = filterEnabled;
+        this.usersRejected = meterRegistry.counter(METRIC_NAME, "entity", "user", "result", "rejected");
+        this.usersCached = meterRegistry.counter(METRIC_NAME, "entity", "user", "result", "cached");
+        this.usersQueried = meterRegistry.counter(METRIC_NAME, "entity", "user", "result", "queried");
+        this.itemsRejected = meterRegistry.counter(METRIC_NAME, "entity", "item", "result", "rejected");
+        this.itemsCached = meterRegistry.counter(METRIC_NAME, "entity", "item", "result", "cached");
+        this.itemsQueried = meterRegistry.counter(METRIC_NAME, "entity", "item", "result", "queried");
+    }
+
+    @Override
+    public void checkUser(Long userId) {
+        if (!exists(userId, users, USERS_CACHE, userRepository, usersRejected, usersCached, usersQueried)) {
+            throw new NotFoundException(String.format("Пользователя с ID:%d нет в базе", userId));
+        }
+    }
+
+    @Override
+    public void checkItem(Long itemId) {
+        if (!exists(itemId, items, ITEMS_CACHE, itemRepository, itemsRejected, itemsCached, itemsQueried)) {
+            throw new NotFoundException(String.format("Вещи с ID:%d нет в базе", itemId));
+        }
+    }
+
+    @Override
+    public void userAdded(Long userId) {
+        addAfterCommit(users, userId);
+    }
+
+    @Override
+    public void itemAdded(Long itemId) {
+        addAfterCommit(items, itemId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.existence.rebuild-interval:PT10M}")
+    public synchronized void rebuild() {
+        if (!filterEnabled) {
+            return;
+        }
+        rebuild(users, "пользователей", userRepository::streamAllIds);
+        rebuild(items, "вещей", itemRepository::streamAllIds);
+    }
+
+    private boolean exists(Long id, IdFilter filter, String cacheName, JpaRepository<?, Long> repository,
+                           Counter rejected, Counter cached, Counter queried) {
+        if (filterEnabled && !filter.mightContain(id)) {
+            rejected.increment();
+            return false;
+        }
+        if (isCached(cacheName, id)) {
+            cached.increment();
+            return true;
+        }
+        queried.increment();
+        return repository.existsById(id);
+    }
+
+    // запись удаляется из кеша при удалении пользователя или вещи, отсутствие записи в кеш не попадает
+    private boolean isCached(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper value = cache == null ? null : cache.get(id);
+        return value != null && value.get() != null;
+    }
+
+    // до фиксации транзакции снимок пересборки может не увидеть запись, а ID уже будет в карте и потеряется
+    private void addAfterCommit(IdFilter filter, Long id) {
+        if (!filterEnabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    filter.add(id);
+                }
+            });
+        } else {
+            filter.add(id);
+        }
+    }
+
+    private void rebuild(IdFilter filter, String name, Supplier<Stream<Long>> ids) {
+        filter.beginRebuild();
+        try {
+            BitSet rebuilt = readOnlyTransaction.execute(status -> {
+                try (Stream<Long> stream = ids.get()) {
+                    return IdFilter.collect(stream);
+                }
+            });
+            filter.completeRebuild(rebuilt);
+            log.info(String.format("Фильтр существования %s пересобран, ID в фильтре:%d", name, rebuilt.cardinality()));
+        } catch (RuntimeException e) {
+            // прежняя карта остаётся в работе до следующей попытки
+            filter.abortRebuild();
+            log.warn(String.format("Не удалось пересобрать фильтр существования %s: %s", name, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.existence.service;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Битовая карта первичных ключей: один бит на ID, при ключах из последовательности миллион записей
+ * занимает около 125 КБ. Сброшенный бит значит, что записи точно нет; установленный бит может остаться
+ * от удалённой записи до следующей пересборки, поэтому положительный ответ проверяется в базе.
+ * ID больше Integer.MAX_VALUE в карту не помещаются и всегда считаются возможными.
+ */
+class IdFilter {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BitSet ids = new BitSet();
+    // ID, добавленные во время пересборки: снимок базы мог быть прочитан раньше их фиксации
+    private BitSet addedDuringRebuild;
+    // до первой сборки о составе таблицы ничего не известно
+    private boolean ready;
+
+    boolean mightContain(long id) {
+        if (!fits(id)) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            return !ready || ids.get((int) id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void add(long id) {
+        if (!fits(id)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ids.set((int) id);
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.set((int) id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild = new BitSet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void completeRebuild(BitSet rebuilt) {
+        lock.writeLock().lock();
+        try {
+            rebuilt.or(addedDuringRebuild);
+            ids = rebuilt;
+            addedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static BitSet collect(Stream<Long> ids) {
+        BitSet bits = new BitSet();
+        ids.filter(IdFilter::fits).forEach(id -> bits.set(id.intValue()));
+        return bits;
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+}
@@ -2,16 +2,27 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
 import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -20,12 +31,20 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDto save(@RequestHeader(name = "X-Sharer-User-Id") long userId, @Valid @RequestBody ItemDto itemDto) {
         return itemService.save(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {ItemImportFormat.CSV_VALUE, ItemImportFormat.NDJSON_VALUE})
+    public ItemImportReportDto importItems(@RequestHeader(name = "X-Sharer-User-Id") long userId,
+                                           @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) {
+        return itemImportService.importItems(userId, ItemImportFormat.of(contentType), body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@PathVariable long itemId,
                           @RequestHeader(name = "X-Sharer-User-Id") long userId,
@@ -57,10 +76,32 @@ public class ItemController {
         return itemService.findByWord(text, PageRequest.of((from == 0 ? 0 : (from / size)), size));
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> findComments(@PathVariable long itemId,
+                                                         @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                         @RequestParam(required = false) String after) {
+        List<CommentDto> comments = itemService.findComments(itemId, KeysetCursor.decode(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            CommentDto last = comments.get(comments.size() - 1);
+            response.header(KeysetCursor.NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(comments);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto saveComment(@Valid @RequestBody CommentDto commentDto,
                                   @RequestHeader("X-Sharer-User-Id") long userId,
                                   @PathVariable long itemId) {
         return itemService.saveComment(commentDto, userId, itemId);
     }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> findAvailability(@PathVariable long itemId,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime to) {
+        return itemService.findAvailability(itemId, from, to);
+    }
 }
@@ -5,12 +5,14 @@ import lombok.Data;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Data
 @Builder
 public class ItemDto {
     Long id;
     @NotBlank
+    @Size(max = 128)   // длина столбца items.name
     String name;
     @NotBlank
     String description;
@@ -15,5 +15,7 @@ public class ItemDtoEnhanced {
     Boolean available;
     BookingDtoShort lastBooking;
     BookingDtoShort nextBooking;
+    // последние комментарии; остальные отдаёт GET /items/{itemId}/comments
     List<CommentDto> comments;
+    Long commentsCount;
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Строка импорта, которая не попала в базу. Строки нумеруются с единицы без учёта заголовка CSV.
+ */
+@Value
+public class ItemImportErrorDto {
+    long row;
+    String error;
+}
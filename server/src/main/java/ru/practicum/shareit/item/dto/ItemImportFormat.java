@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import org.springframework.http.MediaType;
+
+public enum ItemImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    public static ItemImportFormat of(MediaType contentType) {
+        return MediaType.parseMediaType(CSV_VALUE).isCompatibleWith(contentType) ? CSV : NDJSON;
+    }
+}
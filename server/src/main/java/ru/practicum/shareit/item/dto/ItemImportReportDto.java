@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class ItemImportReportDto {
+    long imported;
+    long failed;
+    List<ItemImportErrorDto> errors;
+}
@@ -1,13 +1,43 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentCount;
+import ru.practicum.shareit.item.dto.CommentShort;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(long itemId);
+    // не больше limit последних комментариев на каждую вещь одним запросом
+    @Query(value = "SELECT c.item_id AS \"itemId\", c.id AS \"id\", c.text AS \"text\", " +
+            "u.name AS \"authorName\", c.created AS \"created\" " +
+            "FROM (SELECT cm.id, cm.text, cm.item_id, cm.author_id, cm.created, " +
+            "ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.id DESC) AS rn " +
+            "FROM comments cm " +
+            "WHERE cm.item_id IN (:itemIds)) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<CommentShort> findLatestByItemIds(@Param("itemIds") List<Long> itemIds, @Param("limit") int limit);
 
-    List<Comment> findAllByItemIn(List<Item> items);
+    @Query("SELECT c.item.id AS itemId, COUNT(c.id) AS count FROM Comment c " +
+            "WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<CommentCount> countByItemIds(@Param("itemIds") List<Long> itemIds);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByItemIdOrderByCreatedDescIdDesc(Long itemId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.item.id = :itemId AND (c.created < :created OR (c.created = :created AND c.id < :id)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageByItemIdAfter(@Param("itemId") Long itemId,
+                                        @Param("created") LocalDateTime created,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 }
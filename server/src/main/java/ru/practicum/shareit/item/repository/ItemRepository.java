@@ -1,25 +1,68 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    // вещь из кеша используется вне сессии, поэтому владелец и запрос загружаются сразу
+    @Override
+    @EntityGraph(Item.FULL_GRAPH)
+    @Cacheable(cacheNames = "items", key = "#p0", unless = "#result == null")
+    Optional<Item> findById(Long id);
+
+    // для изменения вещи: закешированный экземпляр общий для всех потоков и не должен меняться в транзакции
+    @EntityGraph(Item.FULL_GRAPH)
+    @Query("SELECT i FROM Item i WHERE i.id = ?1")
+    Optional<Item> findForUpdateById(Long id);
+
+    @Override
+    @EntityGraph(Item.FULL_GRAPH)
+    List<Item> findAllById(Iterable<Long> ids);
+
     List<Item> findAllByOwnerIdOrderByIdAsc(Long userId, Pageable pageable);
 
     @Query("SELECT i FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) " +
             "AND i.available=TRUE")
     List<Item> findByWord(String text, Pageable pageable);
 
+    @Query(value = "SELECT * FROM items i " +
+            "WHERE (i.name ILIKE CONCAT('%', ?1, '%') " +
+            " OR i.description ILIKE CONCAT('%', ?1, '%')) " +
+            "AND i.is_available = TRUE " +
+            "ORDER BY i.id", nativeQuery = true)
+    List<Item> findByWordTrigram(String text, Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i WHERE i.available=TRUE")
+    List<ItemSearchDocument> findAllAvailableForSearch();
+
     List<Item> findAllByRequestIn(List<ItemRequest> itemRequests);
 
     List<Item> findAllByRequest(ItemRequest itemRequest);
+
+    // только первичные ключи - для пересборки фильтра существования
+    @Query("SELECT i.id FROM Item i")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Long> streamAllIds();
 }
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по названиям и описаниям доступных вещей.
+ * Для каждого слова индексируются все его суффиксы, поэтому поиск по префиксу суффикса
+ * даёт то же совпадение по подстроке внутри слова, что и LIKE '%x%'.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final String DELIMITERS = "[^\\p{L}\\p{Nd}]+";
+
+    private final ItemRepository itemRepository;
+
+    private final NavigableMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<String>> documents = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        List<ItemSearchDocument> available = itemRepository.findAllAvailableForSearch();
+        available.forEach(doc -> put(doc.getId(), doc.getName(), doc.getDescription()));
+        log.info(String.format("Поисковый индекс построен, вещей в индексе:%d", available.size()));
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        List<String> tokens = tokenize(text);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> found = null;
+        for (String token : tokens) {
+            Set<Long> ids = lookup(token);
+            if (found == null) {
+                found = ids;
+            } else {
+                found.retainAll(ids);
+            }
+            if (found.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Long> pageIds = found.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findAllById(pageIds).stream()
+                .filter(Item::getAvailable)
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            put(item.getId(), item.getName(), item.getDescription());
+        } else {
+            remove(item.getId());
+        }
+    }
+
+    @Override
+    public synchronized void remove(Long itemId) {
+        Set<String> suffixes = documents.remove(itemId);
+        if (suffixes != null) {
+            suffixes.forEach(suffix -> postings.computeIfPresent(suffix, (key, ids) -> {
+                ids.remove(itemId);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+
+    private synchronized void put(Long itemId, String name, String description) {
+        remove(itemId);
+        Set<String> suffixes = new HashSet<>();
+        tokenize(name + " " + description).forEach(token -> {
+            for (int i = 0; i < token.length(); i++) {
+                suffixes.add(token.substring(i));
+            }
+        });
+        suffixes.forEach(suffix -> postings.computeIfAbsent(suffix, key -> new ConcurrentSkipListSet<>()).add(itemId));
+        documents.put(itemId, suffixes);
+    }
+
+    private Set<Long> lookup(String token) {
+        Set<Long> ids = new TreeSet<>();
+        postings.subMap(token, true, token + Character.MAX_VALUE, true).values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(DELIMITERS))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
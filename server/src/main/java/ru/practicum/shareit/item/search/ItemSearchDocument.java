@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.search;
+
+public interface ItemSearchDocument {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+
+import java.io.InputStream;
+
+public interface ItemImportService {
+    ItemImportReportDto importItems(Long userId, ItemImportFormat format, InputStream body);
+}
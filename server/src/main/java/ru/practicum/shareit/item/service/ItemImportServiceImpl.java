@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.existence.service.ExistenceService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportFormat;
+import ru.practicum.shareit.item.dto.ItemImportReportDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemAddedToRequestEvent;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ExistenceService existenceService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemMapper itemMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ItemImportServiceImpl(ItemRepository itemRepository,
+                                 ItemRequestRepository itemRequestRepository,
+                                 ExistenceService existenceService,
+                                 ItemSearchEngine itemSearchEngine,
+                                 ItemMapper itemMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.existenceService = existenceService;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemMapper = itemMapper;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ndjsonReader = objectMapper.readerFor(ItemDto.class);
+        CsvMapper csvMapper = CsvMapper.builder()
+                .findAndAddModules()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        this.csvReader = csvMapper.readerFor(ItemDto.class).with(CsvSchema.emptySchema().withHeader());
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ItemImportReportDto importItems(Long userId, ItemImportFormat format, InputStream body) {
+        log.info(String.format("Импорт вещей пользователя с ID:%d, формат:%s", userId, format));
+        existenceService.checkUser(userId);
+
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        Map<Long, ItemDto> chunk = new LinkedHashMap<>();
+        long imported = 0;
+        long row = 0;
+        // тело разбирается по одной строке, в памяти держится не больше одной порции
+        try (MappingIterator<ItemDto> rows = (format == ItemImportFormat.CSV ? csvReader : ndjsonReader).readValues(body)) {
+            while (rows.hasNextValue()) {
+                try {
+                    ItemDto itemDto = rows.nextValue();
+                    row++;
+                    String violations = validate(itemDto);
+                    if (violations != null) {
+                        errors.add(new ItemImportErrorDto(row, violations));
+                        continue;
+                    }
+                    chunk.put(row, itemDto);
+                } catch (JsonMappingException e) {
+                    row++;
+                    errors.add(new ItemImportErrorDto(row, e.getOriginalMessage()));
+                    continue;
+                }
+                if (chunk.size() >= batchSize) {
+                    imported += saveChunk(userId, chunk, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            // после синтаксической ошибки продолжить разбор невозможно, уже прочитанные строки сохраняются
+            errors.add(new ItemImportErrorDto(row + 1, e.getMessage()));
+        }
+        imported += saveChunk(userId, chunk, errors);
+
+        log.info(String.format("Импорт вещей пользователя с ID:%d завершён, добавлено:%d, отклонено:%d",
+                userId, imported, errors.size()));
+        return ItemImportReportDto.builder()
+                .imported(imported)
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    private String validate(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private long saveChunk(Long userId, Map<Long, ItemDto> chunk, List<ItemImportErrorDto> errors) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        try {
+            return afterSave(transactionTemplate.execute(status -> insert(userId, chunk.values())));
+        } catch (DataAccessException e) {
+            // одна отклонённая строка откатывает всю порцию, поэтому строки сохраняются заново по одной
+            log.warn(String.format("Порция импорта вещей отклонена базой, строки сохраняются по одной: %s",
+                    e.getMostSpecificCause().getMessage()));
+            long imported = 0;
+            for (Map.Entry<Long, ItemDto> row : chunk.entrySet()) {
+                imported += saveRow(userId, row.getKey(), row.getValue(), errors);
+            }
+            return imported;
+        }
+    }
+
+    private long saveRow(Long userId, Long row, ItemDto itemDto, List<ItemImportErrorDto> errors) {
+        try {
+            return afterSave(transactionTemplate.execute(status -> insert(userId, List.of(itemDto))));
+        } catch (DataAccessException e) {
+            errors.add(new ItemImportErrorDto(row, e.getMostSpecificCause().getMessage()));
+            return 0;
+        }
+    }
+
+    private long afterSave(List<Item> savedItems) {
+        savedItems.forEach(item -> {
+            existenceService.itemAdded(item.getId());
+            itemSearchEngine.index(item);
+        });
+        return savedItems.size();
+    }
+
+    private List<Item> insert(Long userId, Collection<ItemDto> itemsDto) {
+        User owner = entityManager.getReference(User.class, userId);
+        Set<Long> requestIds = itemsDto.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        // как и в ItemMapper, ссылка на несуществующий запрос не сохраняется
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = itemsDto.stream()
+                .map(itemDto -> Item.builder()
+                        .name(itemDto.getName())
+                        .description(itemDto.getDescription())
+                        .available(itemDto.getAvailable())
+                        .owner(owner)
+                        .request(requests.get(itemDto.getRequestId()))
+                        .build())
+                .collect(Collectors.toList());
+        List<Item> savedItems = itemRepository.saveAll(items);
+        // идентификаторы выданы последовательностью заранее, вставки уходят пакетами по hibernate.jdbc.batch_size
+        entityManager.flush();
+        // события публикуются внутри транзакции порции: подписчики получат их только после её фиксации
+        savedItems.stream()
+                .filter(item -> item.getRequest() != null)
+                .forEach(item -> eventPublisher.publishEvent(new ItemAddedToRequestEvent(
+                        item.getRequest().getRequester().getId(), item.getRequest().getId(), itemMapper.itemToItemDto(item))));
+        entityManager.clear();
+        return savedItems;
+    }
+}
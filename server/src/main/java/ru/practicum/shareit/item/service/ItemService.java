@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
 import ru.practicum.shareit.item.dto.ItemDtoForUpdate;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -21,5 +24,9 @@ public interface ItemService {
 
     List<ItemDto> findByWord(String word, Pageable pageable);
 
+    List<CommentDto> findComments(Long itemId, KeysetCursor after, Integer size);
+
     CommentDto saveComment(CommentDto comment, long userId, long itemId);
+
+    List<TimeSlotDto> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -2,18 +2,28 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.booking.mapper.BookingMapperShort;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingAvailabilityService;
 import ru.practicum.shareit.exception.model.MyValidationException;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.existence.service.ExistenceService;
 import ru.practicum.shareit.exception.model.WrongUserIdException;
+import ru.practicum.shareit.item.dto.CommentCount;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentShort;
 import ru.practicum.shareit.item.dto.ItemDtoEnhanced;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -23,6 +33,9 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.stream.ItemAddedToRequestEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -37,27 +50,48 @@ import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    // сколько последних комментариев попадает в карточку вещи
+    private static final int COMMENTS_PREVIEW_SIZE = 10;
+    private static final String ITEMS_CACHE = "items";
+
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExistenceService existenceService;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public ItemDto save(Long userId, ItemDto itemDto) {
         log.info("Сохранение новой вещи");
         Item item = itemMapper.itemDtoToItem(itemDto);
+        // ID новой вещи выдаёт последовательность: с чужим ID и пустой версией persist отклонил бы вещь
+        item.setId(null);
         item.setOwner(userMapper.userDtoToUser(userService.findById(userId)));
-        return itemMapper.itemToItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        existenceService.itemAdded(savedItem.getId());
+        afterCommit(() -> itemSearchEngine.index(savedItem));
+        ItemDto savedItemDto = itemMapper.itemToItemDto(savedItem);
+        if (savedItem.getRequest() != null) {
+            eventPublisher.publishEvent(new ItemAddedToRequestEvent(
+                    savedItem.getRequest().getRequester().getId(), savedItem.getRequest().getId(), savedItemDto));
+        }
+        return savedItemDto;
     }
 
     @Override
     @Transactional
     public ItemDto update(Long itemId, Long userId, ItemDtoForUpdate itemDtoForUpdate) {
         log.info(String.format("Обновление вещи c ID:%d", itemId));
-        Item itemForUpdate = findItemById(itemId);
+        // изменяемая вещь читается мимо кеша: в кеш не должен попасть экземпляр, который правит эта транзакция
+        Item itemForUpdate = itemRepository.findForUpdateById(itemId).orElseThrow(() ->
+                new NotFoundException(String.format("Вещи с ID:%d нет в базе", itemId)));
 
         if (!Objects.equals(userId, itemForUpdate.getOwner().getId())) {
             throw new WrongUserIdException(
@@ -76,15 +110,25 @@ public class ItemServiceImpl implements ItemService {
             itemForUpdate.setAvailable(itemDtoForUpdate.getAvailable());
         }
 
-        return itemMapper.itemToItemDto(itemRepository.save(itemForUpdate));
+        Item updatedItem = itemRepository.save(itemForUpdate);
+        afterCommit(() -> {
+            evictItem(itemId);
+            itemSearchEngine.index(updatedItem);
+        });
+        return itemMapper.itemToItemDto(updatedItem);
     }
 
     @Override
     @Transactional
     public void delete(Long itemId) {
         log.info(String.format("Удаление вещи с ID:%d", itemId));
-        findItemById(itemId);   // проверка на наличие вещи с таким ID в базе
+        existenceService.checkItem(itemId);   // проверка на наличие вещи с таким ID в базе
         itemRepository.deleteById(itemId);
+        afterCommit(() -> {
+            evictItem(itemId);
+            itemSearchEngine.remove(itemId);
+            bookingAvailabilityService.removeItem(itemId);
+        });
     }
 
     @Override
@@ -95,28 +139,15 @@ public class ItemServiceImpl implements ItemService {
 
         ItemDtoEnhanced itemDtoEnhanced = itemMapper.itemToItemDtoEnhanced(item);
 
-        Booking last = null;
-        Booking next = null;
-
         if (Objects.equals(item.getOwner().getId(), userId)) {
-            LocalDateTime now = LocalDateTime.now();
-            last = bookingRepository.findFirstByItemAndStartLessThanEqualAndStatusIsOrderByStartDesc(
-                    item, now, APPROVED).orElse(null);
-            next = bookingRepository.findFirstByItemAndStartAfterAndStatusIsOrderByStartAsc(
-                    item, now, APPROVED).orElse(null);
+            Map<Long, BookingDtoShort> itemIdToLast = new HashMap<>();
+            Map<Long, BookingDtoShort> itemIdToNext = new HashMap<>();
+            fillLastAndNextBookings(List.of(item.getId()), itemIdToLast, itemIdToNext);
+            itemDtoEnhanced.setLastBooking(itemIdToLast.get(item.getId()));
+            itemDtoEnhanced.setNextBooking(itemIdToNext.get(item.getId()));
         }
 
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
-        List<CommentDto> commentsDto = comments.stream()
-                .map(CommentMapper::commentToCommentDto).collect(Collectors.toList());
-
-        if (last != null) {
-            itemDtoEnhanced.setLastBooking(BookingMapperShort.bookingToBookingDtoShort(last));
-        }
-        if (next != null) {
-            itemDtoEnhanced.setNextBooking(BookingMapperShort.bookingToBookingDtoShort(next));
-        }
-        itemDtoEnhanced.setComments(commentsDto);
+        fillComments(List.of(itemDtoEnhanced));
 
         return itemDtoEnhanced;
     }
@@ -124,32 +155,21 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<ItemDtoEnhanced> findByUserId(Long userId, Pageable pageable) {
         log.info(String.format("Поиск всех вещей пользователя с ID:%d", userId));
-        userService.findById(userId);
+        existenceService.checkUser(userId);
         List<Item> itemList = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable);
 
         List<ItemDtoEnhanced> itemDtoEnhancedList = itemList.stream()
                 .map(itemMapper::itemToItemDtoEnhanced)
                 .collect(Collectors.toList());
 
-        List<Comment> commentList = commentRepository.findAllByItemIn(itemList);
-        Map<Long, List<Comment>> itemIdToListComments = commentList.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
-
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> last = bookingRepository
-                .findAllByItemInAndStartLessThanEqualAndStatusIsOrderByStartDesc(itemList, now, APPROVED);
-        List<Booking> next = bookingRepository
-                .findAllByItemInAndStartAfterAndStatusIsOrderByStartAsc(itemList, now, APPROVED);
+        Map<Long, BookingDtoShort> itemIdToLast = new HashMap<>();
+        Map<Long, BookingDtoShort> itemIdToNext = new HashMap<>();
+        fillLastAndNextBookings(itemList.stream().map(Item::getId).collect(Collectors.toList()),
+                itemIdToLast, itemIdToNext);
 
-        Map<Long, List<Booking>> itemIdToListLast = last.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
-        Map<Long, List<Booking>> itemIdToListNext = next.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
-
-        itemDtoEnhancedList.forEach(i -> i.setLastBooking(getBookingDtoShort(i.getId(), itemIdToListLast)));
-        itemDtoEnhancedList.forEach(i -> i.setNextBooking(getBookingDtoShort(i.getId(), itemIdToListNext)));
-        itemDtoEnhancedList.forEach(i -> i.setComments(getCommentDto(i.getId(), itemIdToListComments)));
+        itemDtoEnhancedList.forEach(i -> i.setLastBooking(itemIdToLast.get(i.getId())));
+        itemDtoEnhancedList.forEach(i -> i.setNextBooking(itemIdToNext.get(i.getId())));
+        fillComments(itemDtoEnhancedList);
 
         return itemDtoEnhancedList;
     }
@@ -160,11 +180,24 @@ public class ItemServiceImpl implements ItemService {
         if (word.isBlank()) {
             return new ArrayList<>();
         }
-        return itemRepository.findByWord(word, pageable).stream()
+        return itemSearchEngine.search(word, pageable).stream()
                 .map(itemMapper::itemToItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<CommentDto> findComments(Long itemId, KeysetCursor after, Integer size) {
+        log.info(String.format("Поиск комментариев к вещи с ID:%d", itemId));
+        existenceService.checkItem(itemId);
+        Pageable page = PageRequest.of(0, size);
+        List<Comment> comments = after == null
+                ? commentRepository.findAllByItemIdOrderByCreatedDescIdDesc(itemId, page)
+                : commentRepository.findPageByItemIdAfter(itemId, after.getPosition(), after.getId(), page);
+        return comments.stream()
+                .map(CommentMapper::commentToCommentDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public CommentDto saveComment(CommentDto commentDto, long userId, long itemId) {
@@ -180,25 +213,64 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.commentToCommentDto(commentRepository.save(comment));
     }
 
+    @Override
+    public List<TimeSlotDto> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info(String.format("Поиск свободных периодов вещи с ID:%d", itemId));
+        return bookingAvailabilityService.findFreeSlots(itemId, from, to);
+    }
+
     private Item findItemById(Long itemId) {
         return itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException(String.format("Вещи с ID:%d нет в базе", itemId)));
     }
 
-    private BookingDtoShort getBookingDtoShort(Long itemDtoEnhancedId, Map<Long, List<Booking>> itemIdToListBooking) {
-        Optional<BookingDtoShort> bookingDtoShort = Optional.empty();
-        if (itemIdToListBooking.containsKey(itemDtoEnhancedId)) {
-            bookingDtoShort = itemIdToListBooking.get(itemDtoEnhancedId).stream()
-                    .map(BookingMapperShort::bookingToBookingDtoShort).findFirst();
+    private void fillLastAndNextBookings(List<Long> itemIds, Map<Long, BookingDtoShort> itemIdToLast,
+                                         Map<Long, BookingDtoShort> itemIdToNext) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        bookingRepository.findLastAndNextByItemIds(itemIds, LocalDateTime.now(), APPROVED.name())
+                .forEach(booking -> (booking.getLast() ? itemIdToLast : itemIdToNext)
+                        .put(booking.getItemId(), BookingMapperShort.bookingItemShortToBookingDtoShort(booking)));
+    }
+
+    private void fillComments(List<ItemDtoEnhanced> itemsDto) {
+        if (itemsDto.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = itemsDto.stream().map(ItemDtoEnhanced::getId).collect(Collectors.toList());
+        Map<Long, List<CommentDto>> itemIdToComments = commentRepository
+                .findLatestByItemIds(itemIds, COMMENTS_PREVIEW_SIZE).stream()
+                .collect(Collectors.groupingBy(CommentShort::getItemId,
+                        Collectors.mapping(CommentMapper::commentShortToCommentDto, Collectors.toList())));
+        Map<Long, Long> itemIdToCount = commentRepository.countByItemIds(itemIds).stream()
+                .collect(Collectors.toMap(CommentCount::getItemId, CommentCount::getCount));
+
+        itemsDto.forEach(itemDto -> {
+            itemDto.setComments(itemIdToComments.getOrDefault(itemDto.getId(), new ArrayList<>()));
+            itemDto.setCommentsCount(itemIdToCount.getOrDefault(itemDto.getId(), 0L));
+        });
+    }
+
+    // вещь сбрасывается из кеша после фиксации: читатель внутри транзакции успел бы вернуть в кеш старую версию
+    private void evictItem(Long itemId) {
+        Cache cache = cacheManager.getCache(ITEMS_CACHE);
+        if (cache != null) {
+            cache.evict(itemId);
         }
-        return bookingDtoShort.orElse(null);
     }
 
-    private List<CommentDto> getCommentDto(Long itemDtoEnhancedId, Map<Long, List<Comment>> itemIdToListComments) {
-        if (itemIdToListComments.containsKey(itemDtoEnhancedId)) {
-            return itemIdToListComments.getOrDefault(itemDtoEnhancedId, null).stream()
-                    .map(CommentMapper::commentToCommentDto).collect(Collectors.toList());
+    // поисковый индекс меняется только после фиксации: при откате в нём не остаётся несохранённых вещей и слов
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
-        return new ArrayList<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -30,6 +31,12 @@ public class ItemRequestController {
         return itemRequestService.findByOwnerId(ownerId);
     }
 
+    // сервер присылает событие item на каждую новую вещь по запросам пользователя
+    @GetMapping("/stream")
+    public SseEmitter stream(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        return itemRequestService.subscribe(ownerId);
+    }
+
     @GetMapping("/all")
     public List<ItemRequestDto> findAll(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -13,4 +14,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> findByOwnerId(Long ownerId);
 
     List<ItemRequestDto> findAll(Long ownerId, Pageable pageable);
+
+    SseEmitter subscribe(Long ownerId);
 }
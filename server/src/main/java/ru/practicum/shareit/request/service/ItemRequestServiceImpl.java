@@ -3,7 +3,9 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.existence.service.ExistenceService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
@@ -12,6 +14,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestEventHub;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -29,6 +32,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
+    private final ItemRequestEventHub itemRequestEventHub;
+    private final ExistenceService existenceService;
 
     @Override
     public ItemRequestDto save(ItemRequestDto itemRequestDto, Long ownerId) {
@@ -42,8 +47,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> findByOwnerId(Long ownerId) {
-        userRepository.findById(ownerId).orElseThrow(()
-                -> new NotFoundException(String.format("Пользователя с ID:%d нет в базе", ownerId)));
+        existenceService.checkUser(ownerId);
         List<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequesterIdOrderByCreatedAsc(ownerId);
         List<ItemRequestDto> irdList = itemRequestList.stream()
                 .map(itemRequestMapper::itemRequestToItemRequestDto)
@@ -59,8 +63,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> findAll(Long ownerId, Pageable pageable) {
-        userRepository.findById(ownerId).orElseThrow(()
-                -> new NotFoundException(String.format("Пользователя с ID:%d нет в базе", ownerId)));
+        existenceService.checkUser(ownerId);
         List<ItemRequest> itemRequestList = itemRequestRepository
                 .findAllByRequesterIdNotOrderByCreatedDesc(ownerId, pageable);
         List<ItemRequestDto> irdList = itemRequestList.stream()
@@ -77,8 +80,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto findById(Long ownerId, Long requestId) {
-        userRepository.findById(ownerId).orElseThrow(()
-                -> new NotFoundException(String.format("Пользователя с ID:%d нет в базе", ownerId)));
+        existenceService.checkUser(ownerId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запроса с ID:%d нет в базе", requestId)));
         ItemRequestDto itemRequestDto = itemRequestMapper.itemRequestToItemRequestDto(itemRequest);
@@ -93,6 +95,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return itemRequestDto;
     }
 
+    @Override
+    public SseEmitter subscribe(Long ownerId) {
+        existenceService.checkUser(ownerId);
+        return itemRequestEventHub.subscribe(ownerId);
+    }
+
 
     private List<ItemDto> getItemDtoList(Long itemRequestId, Map<Long, List<Item>> requestIdToItemList) {
         List<ItemDto> itemDto = new ArrayList<>();
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.stream;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Публикуется при сохранении вещи в ответ на запрос, рассылается подписчикам после фиксации транзакции.
+ */
+@Value
+public class ItemAddedToRequestEvent {
+    Long requesterId;
+    Long requestId;
+    ItemDto item;
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.request.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписки на новые вещи по запросам пользователя. У каждого подписчика своя ограниченная очередь,
+ * а отправка идёт в отдельном пуле, поэтому медленный клиент не задерживает сохранение вещи.
+ * Подписчик с переполненной очередью отключается и после переподключения перечитывает GET /requests.
+ */
+@Slf4j
+@Component
+public class ItemRequestEventHub {
+    private static final String ITEM_EVENT = "item";
+    private static final String HEARTBEAT = "ping";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public ItemRequestEventHub(@Value("${shareit.requests.stream.buffer-size:64}") int bufferSize,
+                               @Value("${shareit.requests.stream.timeout:30m}") Duration timeout,
+                               @Value("${shareit.requests.stream.sender-threads:2}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("request-stream-"));
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        // добавление внутри compute: иначе unsubscribe последнего подписчика мог бы удалить набор между получением и add
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            Set<Subscriber> result = userSubscribers == null ? ConcurrentHashMap.newKeySet() : userSubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        log.info(String.format("Подписка пользователя с ID:%d на ответы к запросам", userId));
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onItemAdded(ItemAddedToRequestEvent event) {
+        Set<Subscriber> userSubscribers = subscribers.get(event.getRequesterId());
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            SseEmitter.SseEventBuilder message = SseEmitter.event()
+                    .id(String.valueOf(event.getItem().getId()))
+                    .name(ITEM_EVENT)
+                    .data(event.getItem());
+            if (subscriber.queue.offer(message)) {
+                schedule(subscriber);
+            } else {
+                log.warn(String.format("Очередь подписчика с ID:%d переполнена, подписка закрыта", subscriber.userId));
+                unsubscribe(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    // держит соединение открытым для прокси и гейтвея, у которых есть таймаут чтения
+    @Scheduled(fixedDelayString = "${shareit.requests.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            if (subscriber.queue.isEmpty() && subscriber.queue.offer(SseEmitter.event().comment(HEARTBEAT))) {
+                schedule(subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder message;
+            while ((message = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // клиент отключился или подписка уже завершена
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // событие могло прийти между последним poll и сбросом флага
+        if (!subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
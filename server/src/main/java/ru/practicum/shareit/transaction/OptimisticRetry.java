@@ -0,0 +1,64 @@
+package ru.practicum.shareit.transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет действие в отдельной транзакции и повторяет его при конфликте версий (@Version).
+ * Каждая попытка заново читает данные, поэтому проверки внутри действия видят результат транзакции,
+ * из-за которой случился конфликт. После последней попытки исключение пробрасывается, ErrorHandler отвечает 409.
+ * Вызывать вне открытой транзакции: иначе попытка присоединится к ней и повтор ничего не даст.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter retries;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${shareit.optimistic-retry.backoff:PT0.02S}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+        this.retries = meterRegistry.counter("shareit.optimistic.retries");
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts || !pause(attempt)) {
+                    throw e;
+                }
+                retries.increment();
+                log.info(String.format("Конфликт версий, повтор %d из %d", attempt, maxAttempts - 1));
+            }
+        }
+    }
+
+    // случайная пауза растёт с номером попытки и разводит столкнувшиеся транзакции во времени
+    private boolean pause(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -2,8 +2,14 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.model.NotFoundException;
+import ru.practicum.shareit.existence.service.ExistenceService;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoForUpdate;
@@ -18,15 +24,22 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final String USERS_CACHE = "users";
+    private static final String ITEMS_CACHE = "items";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final ExistenceService existenceService;
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional
     public UserDto save(UserDto userDto) {
         log.info("Сохранение пользователя.");
         User user = userMapper.userDtoToUser(userDto);
-        return userMapper.userToUserDto(userRepository.save(user));
+        UserDto savedUserDto = userMapper.userToUserDto(userRepository.save(user));
+        existenceService.userAdded(savedUserDto.getId());
+        return savedUserDto;
     }
 
     @Override
@@ -44,18 +57,25 @@ public class UserServiceImpl implements UserService {
             userForUpdate.setName(userDtoForUpdate.getName());
         }
 
-        return userMapper.userToUserDto(userRepository.save(userForUpdate));
+        UserDto updatedUserDto = userMapper.userToUserDto(userRepository.save(userForUpdate));
+        afterCommit(() -> {
+            evict(USERS_CACHE, userId);
+            clear(ITEMS_CACHE);   // в вещах хранится копия владельца
+        });
+        return updatedUserDto;
     }
 
     @Override
     @Transactional
     public void delete(Long userId) {
         log.info(String.format("Удаление пользователя c ID:%d", userId));
-        findById(userId);   // проверка на наличие пользователя с таким ID в базе
+        existenceService.checkUser(userId);   // проверка на наличие пользователя с таким ID в базе
         userRepository.deleteById(userId);
+        afterCommit(() -> evict(USERS_CACHE, userId));
     }
 
     @Override
+    @Cacheable(cacheNames = "users", key = "#userId")
     public UserDto findById(Long userId) {
         log.info(String.format("Поиск пользователя c ID:%d", userId));
         User user = userRepository.findById(userId).orElseThrow(()
@@ -70,4 +90,32 @@ public class UserServiceImpl implements UserService {
                 .map(userMapper::userToUserDto)
                 .collect(Collectors.toList());
     }
+
+    private void evict(String cacheName, Long userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    // кеши сбрасываются после фиксации: чтение до неё вернуло бы в кеш прежнюю копию пользователя
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -1,4 +1,6 @@
 DROP TABLE IF EXISTS users, items, bookings, requests, comments CASCADE;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -7,27 +9,42 @@ CREATE TABLE IF NOT EXISTS users
     email           VARCHAR(128)    UNIQUE NOT NULL
 );
 
+-- как и bookings_seq: шаг совпадает с allocationSize в Item, чтобы массовый импорт вставлял вещи пакетами
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-    id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT          PRIMARY KEY,
     name            VARCHAR(128)    NOT NULL,
     description     VARCHAR         NOT NULL,
     is_available    BOOLEAN         DEFAULT FALSE,
     owner_id        BIGINT          REFERENCES users (id),
-    request_id      BIGINT
+    request_id      BIGINT,
+    version         BIGINT          NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+-- шаг совпадает с allocationSize в Booking: Hibernate выдаёт идентификаторы без обращения к базе и пакетирует вставки
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id              BIGINT          GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id              BIGINT          PRIMARY KEY,
     start_date      TIMESTAMP       WITHOUT TIME ZONE NOT NULL,
     end_date        TIMESTAMP       WITHOUT TIME ZONE NOT NULL,
     item_id         BIGINT          REFERENCES items (id),
     booker_id       BIGINT          REFERENCES users (id),
-    status          VARCHAR(32)
+    status          VARCHAR(32),
+    version         BIGINT          NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
 CREATE TABLE IF NOT EXISTS requests
 (
     id              BIGINT             GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -36,6 +53,9 @@ CREATE TABLE IF NOT EXISTS requests
     created         TIMESTAMP          WITHOUT TIME ZONE
 );
 
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC);
+
 CREATE TABLE IF NOT EXISTS comments
 (
     id              BIGINT             GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -43,4 +63,7 @@ CREATE TABLE IF NOT EXISTS comments
     item_id         BIGINT             REFERENCES items (id),
     author_id       BIGINT             REFERENCES users (id),
     created         TIMESTAMP          WITHOUT TIME ZONE
-);
\ No newline at end of file
+);
+
+-- покрывает и последние N комментариев каждой вещи, и постраничную выборку по ключу (created, id)
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
\ No newline at end of file
@@ -0,0 +1,186 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Списки бронирований и вещей выполняют одно и то же число SQL-запросов при N и 2N строках на странице:
+ * связи (вещь, владелец, запрос, арендатор) загружаются графами, а не отдельным запросом на строку.
+ * У каждой строки свои вещь, владелец, арендатор и запрос, поэтому N+1 на любой из связей изменит счётчик.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // пересборка фильтра по расписанию выполняет запросы в фоне и сбивала бы счётчик
+        "shareit.existence.filter-enabled=false"
+})
+@ActiveProfiles("test")
+class ListQueryCountTest {
+    private static final int N = 5;
+    private static final int PAGE_SIZE = 100;
+    private static int seeds;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Dataset small;
+    private Dataset large;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        small = seed(N);
+        large = seed(2 * N);
+    }
+
+    @Test
+    void findAllByOwnerRunsConstantNumberOfStatements() {
+        assertConstant(
+                () -> bookingService.findAllByOwner("ALL", small.ownerId, PageRequest.of(0, PAGE_SIZE)).size(),
+                () -> bookingService.findAllByOwner("ALL", large.ownerId, PageRequest.of(0, PAGE_SIZE)).size());
+    }
+
+    @Test
+    void findAllByStateRunsConstantNumberOfStatements() {
+        assertConstant(
+                () -> bookingService.findAllByState("ALL", small.bookerId, PageRequest.of(0, PAGE_SIZE)).size(),
+                () -> bookingService.findAllByState("ALL", large.bookerId, PageRequest.of(0, PAGE_SIZE)).size());
+    }
+
+    @Test
+    void keysetPagesRunConstantNumberOfStatements() {
+        KeysetCursor after = new KeysetCursor(LocalDateTime.now().plusYears(10), Long.MAX_VALUE);
+        assertConstant(
+                () -> bookingService.findAllByOwner("ALL", small.ownerId, null, PAGE_SIZE).size(),
+                () -> bookingService.findAllByOwner("ALL", large.ownerId, null, PAGE_SIZE).size());
+        assertConstant(
+                () -> bookingService.findAllByOwner("ALL", small.ownerId, after, PAGE_SIZE).size(),
+                () -> bookingService.findAllByOwner("ALL", large.ownerId, after, PAGE_SIZE).size());
+        assertConstant(
+                () -> bookingService.findAllByState("ALL", small.bookerId, after, PAGE_SIZE).size(),
+                () -> bookingService.findAllByState("ALL", large.bookerId, after, PAGE_SIZE).size());
+    }
+
+    @Test
+    void findByUserIdRunsConstantNumberOfStatements() {
+        assertConstant(
+                () -> itemService.findByUserId(small.ownerId, PageRequest.of(0, PAGE_SIZE)).size(),
+                () -> itemService.findByUserId(large.ownerId, PageRequest.of(0, PAGE_SIZE)).size());
+    }
+
+    private void assertConstant(Supplier<Integer> smallPage, Supplier<Integer> largePage) {
+        statistics.clear();
+        assertThat(smallPage.get()).isEqualTo(N);
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertThat(largePage.get()).isEqualTo(2 * N);
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    // владелец с size вещами, у каждой вещи свой запрос, арендатор, бронь и комментарий;
+    // отдельный арендатор бронирует size вещей разных владельцев
+    private Dataset seed(int size) {
+        String prefix = "seed" + (++seeds) + "-";
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        User owner = saveUser(prefix + "owner");
+        User booker = saveUser(prefix + "booker");
+        for (int i = 0; i < size; i++) {
+            User requester = saveUser(prefix + "requester" + i);
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("Нужна дрель " + i)
+                    .requester(requester)
+                    .created(LocalDateTime.now())
+                    .build());
+            Item item = saveItem(owner, request, i);
+            User itemBooker = saveUser(prefix + "item-booker" + i);
+            saveBooking(item, itemBooker, start.plusHours(i));
+            commentRepository.save(Comment.builder()
+                    .text("Комментарий " + i)
+                    .item(item)
+                    .author(itemBooker)
+                    .created(LocalDateTime.now())
+                    .build());
+
+            User otherOwner = saveUser(prefix + "other-owner" + i);
+            saveBooking(saveItem(otherOwner, null, i), booker, start.plusHours(i));
+        }
+        return new Dataset(owner.getId(), booker.getId());
+    }
+
+    private User saveUser(String name) {
+        return userRepository.save(User.builder().name(name).email(name + "@mail.ru").build());
+    }
+
+    private Item saveItem(User owner, ItemRequest request, int index) {
+        return itemRepository.save(Item.builder()
+                .name("Дрель " + index)
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build());
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start) {
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+
+    private static class Dataset {
+        private final Long ownerId;
+        private final Long bookerId;
+
+        Dataset(Long ownerId, Long bookerId) {
+            this.ownerId = ownerId;
+            this.bookerId = bookerId;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.model.ConflictException;
+import ru.practicum.shareit.exception.model.MyValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Параллельные подтверждения на H2: из пересекающихся броней одной вещи подтверждается ровно одна,
+ * остальные вызовы завершаются ошибкой, на которую ErrorHandler отвечает 400 или 409.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingApprovalConcurrencyTest {
+    private static final int THREADS = 8;
+    private static int seeds;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private ExecutorService executor;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        String prefix = "concurrency" + (++seeds) + "-";
+        owner = userRepository.save(User.builder().name("owner").email(prefix + "owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email(prefix + "booker@mail.ru").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void onlyOneOfOverlappingBookingsIsApproved() throws Exception {
+        // брони сохраняются репозиторием: сервис не дал бы создать пересекающиеся брони
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(saveWaiting(start.plusHours(i), start.plusDays(1)).getId());
+        }
+
+        List<Outcome> outcomes = runConcurrently(bookingIds.stream()
+                .map(bookingId -> (Callable<BookingDto>) () -> bookingService.update(bookingId, owner.getId(), true))
+                .collect(Collectors.toList()));
+
+        assertThat(outcomes).filteredOn(outcome -> outcome.booking != null).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome.error != null)
+                .allSatisfy(outcome -> assertThat(outcome.error)
+                        .isInstanceOfAny(ConflictException.class, OptimisticLockingFailureException.class));
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .filteredOn(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .hasSize(1);
+    }
+
+    @Test
+    void concurrentApproveAndRejectOfSameBookingHaveOneWinner() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long bookingId = saveWaiting(start, start.plusDays(1)).getId();
+
+        List<Callable<BookingDto>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            calls.add(() -> bookingService.update(bookingId, owner.getId(), approve));
+        }
+        List<Outcome> outcomes = runConcurrently(calls);
+
+        List<BookingDto> winners = outcomes.stream()
+                .filter(outcome -> outcome.booking != null)
+                .map(outcome -> outcome.booking)
+                .collect(Collectors.toList());
+        assertThat(winners).hasSize(1);
+        assertThat(outcomes).filteredOn(outcome -> outcome.error != null)
+                .allSatisfy(outcome -> assertThat(outcome.error)
+                        .isInstanceOfAny(MyValidationException.class, OptimisticLockingFailureException.class));
+        assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus())
+                .isEqualTo(winners.get(0).getStatus());
+    }
+
+    private Booking saveWaiting(LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    // все вызовы стартуют одновременно, чтобы транзакции пересеклись
+    private List<Outcome> runConcurrently(List<Callable<BookingDto>> calls) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(calls.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<BookingDto>> futures = new ArrayList<>();
+        for (Callable<BookingDto> call : calls) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return call.call();
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<BookingDto> future : futures) {
+            try {
+                outcomes.add(new Outcome(future.get(30, TimeUnit.SECONDS), null));
+            } catch (ExecutionException e) {
+                outcomes.add(new Outcome(null, e.getCause()));
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Подтверждение брони не завершилось за 30 секунд", e);
+            }
+        }
+        return outcomes;
+    }
+
+    private static class Outcome {
+        private final BookingDto booking;
+        private final Throwable error;
+
+        Outcome(BookingDto booking, Throwable error) {
+            this.booking = booking;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemIntervalsTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlapsFindsLongIntervalHiddenBehindShortOne() {
+        ItemIntervals intervals = new ItemIntervals();
+        intervals.add(interval(1, 1, 10));
+        intervals.add(interval(2, 2, 3));
+
+        assertThat(intervals.overlaps(hour(5), hour(6))).isTrue();
+        assertThat(intervals.overlaps(hour(10), hour(12))).isFalse();
+        assertThat(intervals.overlaps(hour(0), hour(1))).isFalse();
+    }
+
+    @Test
+    void findOverlappingReturnsAllOverlappingIntervalsOrderedByStart() {
+        ItemIntervals intervals = new ItemIntervals();
+        intervals.add(interval(3, 8, 9));
+        intervals.add(interval(1, 1, 10));
+        intervals.add(interval(2, 2, 3));
+        intervals.add(interval(4, 12, 14));
+
+        assertThat(intervals.findOverlapping(hour(5), hour(9)))
+                .extracting(BookingInterval::getBookingId)
+                .containsExactly(1L, 3L);
+    }
+
+    @Test
+    void removeFinishedBeforeKeepsIntervalsThatEndLater() {
+        ItemIntervals intervals = new ItemIntervals();
+        intervals.add(interval(1, 1, 10));
+        intervals.add(interval(2, 2, 3));
+        intervals.add(interval(3, 4, 5));
+
+        intervals.removeFinishedBefore(hour(5));
+
+        assertThat(intervals.findOverlapping(hour(0), hour(20)))
+                .extracting(BookingInterval::getBookingId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void removeDropsOnlyGivenInterval() {
+        ItemIntervals intervals = new ItemIntervals();
+        BookingInterval longOne = interval(1, 1, 10);
+        intervals.add(longOne);
+        intervals.add(interval(2, 2, 3));
+
+        intervals.remove(longOne);
+
+        assertThat(intervals.overlaps(hour(5), hour(6))).isFalse();
+        assertThat(intervals.overlaps(hour(2), hour(3))).isTrue();
+    }
+
+    @Test
+    void matchesLinearScanOnRandomData() {
+        Random random = new Random(42);
+        ItemIntervals intervals = new ItemIntervals();
+        List<BookingInterval> all = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            int start = random.nextInt(1000);
+            BookingInterval interval = interval(id, start, start + 1 + random.nextInt(50));
+            intervals.add(interval);
+            all.add(interval);
+        }
+        for (int i = 0; i < 100; i++) {
+            BookingInterval removed = all.remove(random.nextInt(all.size()));
+            intervals.remove(removed);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            int from = random.nextInt(1100);
+            int to = from + 1 + random.nextInt(30);
+            List<Long> expected = all.stream()
+                    .filter(interval -> interval.getStart().isBefore(hour(to)) && interval.getEnd().isAfter(hour(from)))
+                    .sorted((a, b) -> a.getStart().equals(b.getStart())
+                            ? a.getBookingId().compareTo(b.getBookingId())
+                            : a.getStart().compareTo(b.getStart()))
+                    .map(BookingInterval::getBookingId)
+                    .collect(Collectors.toList());
+
+            assertThat(intervals.overlaps(hour(from), hour(to))).isEqualTo(!expected.isEmpty());
+            assertThat(intervals.findOverlapping(hour(from), hour(to)))
+                    .extracting(BookingInterval::getBookingId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    private static BookingInterval interval(long bookingId, int startHour, int endHour) {
+        return new BookingInterval(1L, bookingId, hour(startHour), hour(endHour));
+    }
+
+    private static LocalDateTime hour(int hour) {
+        return BASE.plusHours(hour);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.existence.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdFilterTest {
+
+    @Test
+    void allowsEveryIdBeforeFirstRebuild() {
+        IdFilter filter = new IdFilter();
+
+        assertThat(filter.mightContain(1)).isTrue();
+        assertThat(filter.mightContain(1000)).isTrue();
+    }
+
+    @Test
+    void rejectsIdsMissingFromRebuiltMap() {
+        IdFilter filter = rebuilt(1L, 3L);
+
+        assertThat(filter.mightContain(1)).isTrue();
+        assertThat(filter.mightContain(3)).isTrue();
+        assertThat(filter.mightContain(2)).isFalse();
+        assertThat(filter.mightContain(4)).isFalse();
+    }
+
+    @Test
+    void keepsIdsAddedDuringRebuild() {
+        IdFilter filter = rebuilt(1L);
+        filter.beginRebuild();
+        BitSet snapshot = IdFilter.collect(Stream.of(1L, 2L));
+        // запись сохранена после чтения снимка
+        filter.add(5);
+        filter.completeRebuild(snapshot);
+
+        assertThat(filter.mightContain(1)).isTrue();
+        assertThat(filter.mightContain(2)).isTrue();
+        assertThat(filter.mightContain(5)).isTrue();
+        assertThat(filter.mightContain(3)).isFalse();
+    }
+
+    @Test
+    void dropsIdsMissingFromNewSnapshot() {
+        IdFilter filter = rebuilt(1L, 2L);
+        filter.beginRebuild();
+        filter.completeRebuild(IdFilter.collect(Stream.of(1L)));
+
+        assertThat(filter.mightContain(2)).isFalse();
+    }
+
+    @Test
+    void abortKeepsPreviousMap() {
+        IdFilter filter = rebuilt(1L);
+        filter.beginRebuild();
+        filter.add(2);
+        filter.abortRebuild();
+
+        assertThat(filter.mightContain(1)).isTrue();
+        assertThat(filter.mightContain(2)).isTrue();
+        assertThat(filter.mightContain(3)).isFalse();
+
+        // после отмены добавления не копятся для следующей пересборки
+        filter.beginRebuild();
+        filter.completeRebuild(IdFilter.collect(Stream.of(1L)));
+        assertThat(filter.mightContain(2)).isFalse();
+    }
+
+    @Test
+    void abortBeforeFirstRebuildKeepsAllowingEveryId() {
+        IdFilter filter = new IdFilter();
+        filter.beginRebuild();
+        filter.abortRebuild();
+
+        assertThat(filter.mightContain(42)).isTrue();
+    }
+
+    @Test
+    void treatsOutOfRangeIdsAsPossible() {
+        long tooLarge = Integer.MAX_VALUE + 1L;
+        IdFilter filter = rebuilt(1L, tooLarge, -1L);
+        filter.add(Long.MAX_VALUE);
+
+        assertThat(filter.mightContain(-1)).isTrue();
+        assertThat(filter.mightContain(tooLarge)).isTrue();
+        assertThat(filter.mightContain(Long.MAX_VALUE)).isTrue();
+        assertThat(filter.mightContain(Integer.MAX_VALUE)).isFalse();
+        assertThat(filter.mightContain(2)).isFalse();
+    }
+
+    private static IdFilter rebuilt(Long... ids) {
+        IdFilter filter = new IdFilter();
+        filter.beginRebuild();
+        filter.completeRebuild(IdFilter.collect(Stream.of(ids)));
+        return filter;
+    }
+}